@@ -0,0 +1,73 @@
+package com.example.backend.bench;
+
+import com.example.backend.dto.RegisterRequest;
+import com.example.backend.model.User;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.service.AuthService;
+import com.example.backend.service.AuthenticatedUser;
+import com.example.backend.service.JwtService;
+import com.example.backend.service.PasswordHasher;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU-bound parts of register/login: BCrypt at the configured {@code auth.password.bcrypt-strength}
+ * (through the bounded {@link PasswordHasher} pool) and the JWT issued by {@link AuthService},
+ * plus verifying a token, which the claims cache answers after the first call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private ConfigurableApplicationContext context;
+    private PasswordHasher hasher;
+    private JwtService jwt;
+    private User user;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContext.start();
+        hasher = context.getBean(PasswordHasher.class);
+        jwt = context.getBean(JwtService.class);
+        RegisterRequest req = new RegisterRequest();
+        req.setEmail("bench@example.com");
+        req.setPassword(PASSWORD);
+        req.setFullName("Bench User");
+        token = context.getBean(AuthService.class).register(req).getToken();
+        user = context.getBean(UserRepository.class).findByEmail(req.getEmail()).orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String bcryptEncode() {
+        return hasher.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean bcryptMatch() {
+        return hasher.matches(PASSWORD, user.getPasswordHash());
+    }
+
+    @Benchmark
+    public String jwtGenerate() {
+        return jwt.generateToken(user, "USER");
+    }
+
+    @Benchmark
+    public AuthenticatedUser jwtVerifyCached() {
+        return jwt.verify(token);
+    }
+}
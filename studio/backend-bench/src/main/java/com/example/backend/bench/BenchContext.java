@@ -0,0 +1,98 @@
+package com.example.backend.bench;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.model.Comment;
+import com.example.backend.model.Post;
+import com.example.backend.repository.CommentRepository;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Starts the backend on a private in-memory H2 database, without a web server for the JMH
+ * benchmarks (one context per trial) or with one for {@link LoadTest}, and builds
+ * deterministic seed data.
+ */
+final class BenchContext {
+
+    private static final String[] WORDS = {
+            "spring", "java", "latency", "cache", "index", "query", "thread", "garden", "coffee",
+            "travel", "design", "photo", "music", "river", "mountain", "review", "release", "notes",
+            "weekend", "recipe", "budget", "studio", "sketch", "update", "morning", "project"
+    };
+    private static final String[] TOPICS = {"tech", "travel", "food", "art", "news"};
+
+    private BenchContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return run(WebApplicationType.NONE);
+    }
+
+    /** Starts the full web application on a free port; read it from {@code local.server.port}. */
+    static ConfigurableApplicationContext startServer(boolean virtualThreads) {
+        return run(WebApplicationType.SERVLET, "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads);
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType type, String... extraArgs) {
+        // Command-line arguments, so they win over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--snapshot.enabled=false",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .web(type)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+    }
+
+    /** A post whose title and content are drawn from a small vocabulary, so every word matches many posts. */
+    static Post post(Random random, int n) {
+        Post p = new Post();
+        p.setTitle(words(random, 6) + " " + n);
+        p.setContent(words(random, 80));
+        p.setTopic(TOPICS[random.nextInt(TOPICS.length)]);
+        p.setStatus("approved");
+        p.setAuthorName("Author " + (n % 50));
+        p.setAuthorEmail("author" + (n % 50) + "@example.com");
+        return p;
+    }
+
+    static List<Comment> comments(Random random, Post post, int count) {
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Comment c = new Comment();
+            c.setPost(post);
+            c.setAuthorName("Reader " + i);
+            c.setAuthorEmail("reader" + i + "@example.com");
+            c.setContent(words(random, 25));
+            comments.add(c);
+        }
+        return comments;
+    }
+
+    static void seedComments(CommentRepository repo, Random random, List<Post> posts, int perPost) {
+        for (Post p : posts) {
+            repo.saveAll(comments(random, p, perPost));
+        }
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
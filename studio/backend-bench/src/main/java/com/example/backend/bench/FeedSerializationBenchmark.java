@@ -0,0 +1,60 @@
+package com.example.backend.bench;
+
+import com.example.backend.model.Post;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.service.PostService;
+import com.example.backend.web.dto.PostResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialisation of a feed response ({@code List<PostResponseDto>} with comment
+ * previews), using the application's ObjectMapper. The DTOs are built once in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedSerializationBenchmark {
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectWriter writer;
+    private List<PostResponseDto> feed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContext.start();
+        PostService posts = context.getBean(PostService.class);
+        Random random = new Random(42);
+        List<Post> page = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            page.add(posts.create(BenchContext.post(random, i)));
+        }
+        BenchContext.seedComments(context.getBean(CommentRepository.class), random, page, PostService.COMMENT_PREVIEW_SIZE);
+        feed = posts.toPostDtos(page);
+        writer = context.getBean(ObjectMapper.class).writerFor(feed.getClass());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] writeFeed() throws JsonProcessingException {
+        return writer.writeValueAsBytes(feed);
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.backend.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the REST API. Requests are started at a constant arrival rate
+ * whatever the response times, so a slow server builds a queue instead of slowing the load down.
+ * Latency is measured from each request's intended start time, which keeps that queueing in the
+ * percentiles (no coordinated omission).
+ *
+ * <p>Without {@code --url} it starts the backend on a free port over an in-memory H2 database.
+ * It seeds posts, comments and a login user over HTTP, runs a warmup, then measures. It prints
+ * p50/p95/p99/p99.9 per operation and writes HdrHistogram percentile files to {@code --out}.
+ *
+ * <pre>
+ * mvn package exec:exec@load "-Dload.args=--rate=200 --duration=60 --mix=feed:70,like:20,login:10"
+ * </pre>
+ */
+public final class LoadTest {
+
+    enum Operation { FEED, COMMENTS, LIKE, COMMENT, LOGIN }
+
+    private static final String EMAIL = "load@example.com";
+    private static final String PASSWORD = "load-test-password";
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Options options;
+    private final URI base;
+    private final HttpClient client;
+    private final ObjectMapper json = new ObjectMapper();
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Random random = new Random(42);
+    private final List<Long> postIds = new ArrayList<>();
+
+    private LoadTest(Options options, URI base) {
+        this.options = options;
+        this.base = base;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation op : options.mix.keySet()) {
+            stats.put(op, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ConfigurableApplicationContext app = null;
+        URI base;
+        if (options.url != null) {
+            base = URI.create(options.url);
+        } else {
+            app = BenchContext.startServer(options.virtualThreads);
+            base = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+        }
+        try {
+            LoadTest test = new LoadTest(options, base);
+            test.seed();
+            test.run();
+            test.report();
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        // 400 means the user exists already (an external server seeded by an earlier run)
+        send(post("/api/auth/register", Map.of("email", EMAIL, "password", PASSWORD, "fullName", "Load Test")), 200, 400);
+        for (int i = 0; i < options.posts; i++) {
+            Map<String, Object> body = Map.of(
+                    "title", "Load test post " + i,
+                    "content", "Seeded by LoadTest. ".repeat(20),
+                    "topic", "load",
+                    "status", "approved",
+                    "author", Map.of("name", "Load Test", "email", EMAIL));
+            JsonNode created = json.readTree(send(post("/api/posts", body), 201));
+            long id = created.get("id").asLong();
+            postIds.add(id);
+            for (int c = 0; c < options.commentsPerPost; c++) {
+                send(post("/api/posts/" + id + "/comments", comment()), 201);
+            }
+        }
+        System.out.printf("Seeded %d posts with %d comments each against %s%n", options.posts, options.commentsPerPost, base);
+    }
+
+    private void run() throws InterruptedException {
+        double intervalNanos = 1e9 / options.rate;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        System.out.printf("Warmup %d s, then measuring %d s at %.0f req/s%n",
+                options.warmupSeconds, options.durationSeconds, options.rate);
+
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) break;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation op = pick();
+            boolean measured = intended >= measureFrom;
+            Stats s = stats.get(op);
+            if (inFlight.get() >= options.maxInFlight) {
+                // The client is out of room: count it rather than silently sending less load
+                if (measured) s.dropped.increment();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            client.sendAsync(request(op), HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((resp, err) -> {
+                        inFlight.decrementAndGet();
+                        if (measured) {
+                            s.record(intended, resp, err);
+                        }
+                    });
+        }
+
+        // Every request ends by its timeout at the latest, so all of them reach the histograms
+        while (inFlight.get() > 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void report() throws IOException {
+        Path out = Path.of(options.out);
+        Files.createDirectories(out);
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        long completed = 0;
+        long ok = 0;
+
+        System.out.printf("%n%-9s %8s %8s %8s %9s %9s %9s %9s %9s  %s%n",
+                "op", "count", "ok", "dropped", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "non-2xx");
+        for (Map.Entry<Operation, Stats> e : stats.entrySet()) {
+            Stats s = e.getValue();
+            Histogram h = s.latency.copy();
+            all.add(h);
+            completed += h.getTotalCount();
+            ok += s.ok.sum();
+            System.out.printf("%-9s %8d %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    e.getKey().name().toLowerCase(), h.getTotalCount(), s.ok.sum(), s.dropped.sum(),
+                    millis(h, 50), millis(h, 95), millis(h, 99), millis(h, 99.9), h.getMaxValue() / 1000.0,
+                    s.failureCounts());
+            write(out.resolve(e.getKey().name().toLowerCase() + ".hgrm"), h);
+        }
+        write(out.resolve("all.hgrm"), all);
+
+        System.out.printf("%-9s %8d %8d %8s %9.2f %9.2f %9.2f %9.2f %9.2f%n", "all", all.getTotalCount(), ok, "",
+                millis(all, 50), millis(all, 95), millis(all, 99), millis(all, 99.9), all.getMaxValue() / 1000.0);
+        System.out.printf("%nTarget %.0f req/s; achieved %.1f req/s completed, %.1f req/s 2xx. Histograms in %s%n",
+                options.rate, completed / (double) options.durationSeconds, ok / (double) options.durationSeconds,
+                out.toAbsolutePath());
+    }
+
+    private Operation pick() {
+        int r = random.nextInt(options.totalWeight);
+        for (Map.Entry<Operation, Integer> e : options.mix.entrySet()) {
+            r -= e.getValue();
+            if (r < 0) return e.getKey();
+        }
+        throw new IllegalStateException("empty mix");
+    }
+
+    private HttpRequest request(Operation op) {
+        Long id = postIds.get(random.nextInt(postIds.size()));
+        return switch (op) {
+            case FEED -> get("/api/posts?status=approved&limit=20");
+            case COMMENTS -> get("/api/posts/" + id + "/comments?limit=20");
+            case LIKE -> builder("/api/posts/" + id + "/like").POST(HttpRequest.BodyPublishers.noBody()).build();
+            case COMMENT -> post("/api/posts/" + id + "/comments", comment());
+            case LOGIN -> post("/api/auth/login", Map.of("email", EMAIL, "password", PASSWORD));
+        };
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(Duration.ofSeconds(options.timeoutSeconds));
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return builder(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> comment() {
+        return Map.of("authorName", "Load Test", "authorEmail", EMAIL, "content", "Comment from the load test");
+    }
+
+    private byte[] send(HttpRequest request, int... expected) throws IOException, InterruptedException {
+        HttpResponse<byte[]> resp = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        for (int status : expected) {
+            if (resp.statusCode() == status) return resp.body();
+        }
+        throw new IllegalStateException(request.method() + " " + request.uri() + " returned " + resp.statusCode());
+    }
+
+    private static double millis(Histogram h, double percentile) {
+        return h.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void write(Path file, Histogram h) throws IOException {
+        try (PrintStream ps = new PrintStream(Files.newOutputStream(file))) {
+            h.outputPercentileDistribution(ps, 1000.0);
+        }
+    }
+
+    /** Latency (microseconds from intended start) and outcomes of one operation. */
+    private static final class Stats {
+        final ConcurrentHistogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+        void record(long intendedNanos, HttpResponse<?> resp, Throwable err) {
+            long micros = (System.nanoTime() - intendedNanos) / 1000;
+            latency.recordValue(Math.min(Math.max(micros, 0), MAX_LATENCY_MICROS));
+            if (err != null) {
+                failures.computeIfAbsent(err.getClass().getSimpleName(), k -> new LongAdder()).increment();
+            } else if (resp.statusCode() / 100 == 2) {
+                ok.increment();
+            } else {
+                failures.computeIfAbsent(String.valueOf(resp.statusCode()), k -> new LongAdder()).increment();
+            }
+        }
+
+        Map<String, Long> failureCounts() {
+            Map<String, Long> counts = new TreeMap<>();
+            failures.forEach((k, v) -> counts.put(k, v.sum()));
+            return counts;
+        }
+    }
+
+    /** Command line: {@code --name=value} pairs, all optional. */
+    private record Options(double rate, int durationSeconds, int warmupSeconds, Map<Operation, Integer> mix,
+                           int totalWeight, String url, int posts, int commentsPerPost, boolean virtualThreads,
+                           int maxInFlight, int timeoutSeconds, String out) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+                values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+            Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+            for (String part : values.getOrDefault("mix", "feed:60,comments:15,like:15,comment:5,login:5").split(",")) {
+                String[] kv = part.split(":");
+                int weight = Integer.parseInt(kv[1].trim());
+                if (weight > 0) {
+                    mix.put(Operation.valueOf(kv[0].trim().toUpperCase()), weight);
+                }
+            }
+            int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+            if (total == 0) {
+                throw new IllegalArgumentException("--mix needs at least one operation with a positive weight");
+            }
+            return new Options(
+                    Double.parseDouble(values.getOrDefault("rate", "100")),
+                    Integer.parseInt(values.getOrDefault("duration", "30")),
+                    Integer.parseInt(values.getOrDefault("warmup", "10")),
+                    mix,
+                    total,
+                    values.get("url"),
+                    Integer.parseInt(values.getOrDefault("posts", "200")),
+                    Integer.parseInt(values.getOrDefault("comments-per-post", "5")),
+                    Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false")),
+                    Integer.parseInt(values.getOrDefault("max-in-flight", "5000")),
+                    Integer.parseInt(values.getOrDefault("timeout", "30")),
+                    values.getOrDefault("out", "target/load"));
+        }
+    }
+}
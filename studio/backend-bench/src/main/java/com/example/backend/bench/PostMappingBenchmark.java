@@ -0,0 +1,61 @@
+package com.example.backend.bench;
+
+import com.example.backend.model.Post;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.service.PostService;
+import com.example.backend.web.dto.PostResponseDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PostService#toPostDto} for one post and {@link PostService#toPostDtos} for a feed page,
+ * over posts carrying {@code commentsPerPost} comments each. Both run the count and preview
+ * queries against H2, so this tracks the per-page query cost as well as the mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostMappingBenchmark {
+
+    @Param({"0", "3", "50"})
+    int commentsPerPost;
+
+    private ConfigurableApplicationContext context;
+    private PostService posts;
+    private List<Post> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContext.start();
+        posts = context.getBean(PostService.class);
+        Random random = new Random(42);
+        page = new ArrayList<>();
+        for (int i = 0; i < PostService.DEFAULT_PAGE_SIZE; i++) {
+            page.add(posts.create(BenchContext.post(random, i)));
+        }
+        BenchContext.seedComments(context.getBean(CommentRepository.class), random, page, commentsPerPost);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PostResponseDto single() {
+        return posts.toPostDto(page.get(0));
+    }
+
+    @Benchmark
+    public List<PostResponseDto> feedPage() {
+        return posts.toPostDtos(page);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.backend.bench;
+
+import com.example.backend.model.Post;
+import com.example.backend.repository.PostRepository;
+import com.example.backend.service.PostSearchIndex;
+import com.example.backend.service.PostService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title search over {@link #POSTS} seeded posts: the {@code LIKE '%q%'} repository query that
+ * {@code /api/posts/search} falls back to while starting up, against the in-memory
+ * {@link PostSearchIndex} (ids only, and through {@link PostService#search}, which also loads
+ * the page of posts).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    static final int POSTS = 5000;
+
+    // A word in about a fifth of the titles, and the numeric suffix of a single post
+    @Param({"coffee", "4242"})
+    String query;
+
+    private ConfigurableApplicationContext context;
+    private PostRepository repo;
+    private PostSearchIndex index;
+    private PostService posts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContext.start();
+        repo = context.getBean(PostRepository.class);
+        index = context.getBean(PostSearchIndex.class);
+        posts = context.getBean(PostService.class);
+        Random random = new Random(42);
+        for (int i = 0; i < POSTS; i++) {
+            posts.create(BenchContext.post(random, i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Post> titleLike() {
+        return repo.findByTitleContainingIgnoreCase(query);
+    }
+
+    @Benchmark
+    public List<Long> indexIds() {
+        return index.search(query, "approved", PostService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Post> indexPosts() {
+        return posts.search(query, "approved", PostService.DEFAULT_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.backend.config;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Runs a callback once, just before the wrapped response starts its body, errors or redirects,
+ * so a filter can still add headers that depend on what the handler did. Filters call
+ * {@link #beforeCommit()} themselves after the chain for responses that never wrote anything.
+ */
+class BeforeCommitResponse extends HttpServletResponseWrapper {
+    private final Runnable callback;
+    private boolean done;
+
+    BeforeCommitResponse(HttpServletResponse response, Runnable callback) {
+        super(response);
+        this.callback = callback;
+    }
+
+    void beforeCommit() {
+        if (done || isCommitted()) return;
+        done = true;
+        callback.run();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        beforeCommit();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        beforeCommit();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        beforeCommit();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        beforeCommit();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        beforeCommit();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        beforeCommit();
+        super.sendRedirect(location);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.backend.config;
+
+import com.example.backend.service.AuthenticatedUser;
+import com.example.backend.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifies the bearer token on requests that carry one and exposes the caller as the
+ * {@link AuthenticatedUser#REQUEST_ATTRIBUTE} request attribute.
+ *
+ * Most routes are public: a request without a token, or with a bad or expired one (a stale token
+ * left in the browser, say), is served anonymously. Only the routes that act on behalf of a user
+ * ({@link #USER_REQUIRED}) answer 401 when there is no valid token; their handlers answer 403
+ * when the verified caller may not act on the target.
+ */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    private static final String BEARER = "Bearer ";
+    // Method and path patterns of the routes that need a verified caller; the handlers check
+    // which caller (the account owner, or an admin for bulk moderation)
+    private static final Map<String, List<String>> USER_REQUIRED = Map.of(
+            "PUT", List.of("/api/user/*/profile", "/api/user/*/password", "/api/posts/status"),
+            "DELETE", List.of("/api/posts"));
+
+    private final JwtService jwtService;
+    private final ObjectMapper mapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public JwtAuthenticationFilter(JwtService jwtService, ObjectMapper mapper) {
+        this.jwtService = jwtService;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String problem = "Authentication required";
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            try {
+                AuthenticatedUser user = jwtService.verify(header.substring(BEARER.length()).trim());
+                request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, user);
+                chain.doFilter(request, response);
+                return;
+            } catch (IllegalArgumentException e) {
+                log.debug("Ignoring bearer token on {}: {}", request.getRequestURI(), e.getMessage());
+                problem = e.getMessage();
+            }
+        }
+        if (requiresUser(request)) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            mapper.writeValue(response.getWriter(), Map.of("error", problem));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private boolean requiresUser(HttpServletRequest request) {
+        List<String> patterns = USER_REQUIRED.get(request.getMethod());
+        if (patterns == null) return false;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return patterns.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.backend.config;
+
+import com.example.backend.service.ImageProcessingService;
+import com.example.backend.service.JwtService;
+import com.example.backend.service.MediaStats;
+import com.example.backend.service.PasswordHasher;
+import com.example.backend.service.PostDtoCache;
+import com.example.backend.service.UserService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the counters behind /api/stats as Micrometer meters, so they reach /actuator/prometheus.
+ * Everything is read from the existing counters when scraped; nothing is added to the request path.
+ * HTTP timers and the Hikari pool meters come from Spring Boot's auto-configuration.
+ *
+ * Hibernate's statistics are bound by hand. org.hibernate.orm:hibernate-micrometer (same version
+ * as hibernate-core) would do this, and Spring Boot registers its HibernateMetrics automatically
+ * when it is on the classpath. It is not a dependency because the build resolves only artifacts
+ * that are already in its repository mirror, and that one is not. The meter names below match
+ * HibernateMetrics, so switching later means adding the dependency and deleting this binder.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        // Collected only with hibernate.generate_statistics=true
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            FunctionCounter.builder("hibernate.query.executions", stats, Statistics::getQueryExecutionCount)
+                    .description("HQL/native queries executed").register(registry);
+            Gauge.builder("hibernate.query.executions.max", stats, Statistics::getQueryExecutionMaxTime)
+                    .description("Slowest query so far").baseUnit("milliseconds").register(registry);
+            FunctionCounter.builder("hibernate.statements", stats, Statistics::getPrepareStatementCount)
+                    .tag("status", "prepared").register(registry);
+            FunctionCounter.builder("hibernate.entities.loads", stats, Statistics::getEntityLoadCount).register(registry);
+            FunctionCounter.builder("hibernate.entities.fetches", stats, Statistics::getEntityFetchCount).register(registry);
+            FunctionCounter.builder("hibernate.entities.inserts", stats, Statistics::getEntityInsertCount).register(registry);
+            FunctionCounter.builder("hibernate.entities.updates", stats, Statistics::getEntityUpdateCount).register(registry);
+            FunctionCounter.builder("hibernate.entities.deletes", stats, Statistics::getEntityDeleteCount).register(registry);
+            FunctionCounter.builder("hibernate.collections.loads", stats, Statistics::getCollectionLoadCount).register(registry);
+            FunctionCounter.builder("hibernate.flushes", stats, Statistics::getFlushCount).register(registry);
+            FunctionCounter.builder("hibernate.sessions.open", stats, Statistics::getSessionOpenCount).register(registry);
+            FunctionCounter.builder("hibernate.connections.obtained", stats, Statistics::getConnectCount).register(registry);
+            FunctionCounter.builder("hibernate.second.level.cache.requests", stats, Statistics::getSecondLevelCacheHitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("hibernate.second.level.cache.requests", stats, Statistics::getSecondLevelCacheMissCount)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("hibernate.second.level.cache.puts", stats, Statistics::getSecondLevelCachePutCount)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(PostDtoCache postDtoCache, JwtService jwtService, UserService userService) {
+        return registry -> {
+            bindCache(registry, "post-dto", postDtoCache, PostDtoCache::stats, PostDtoCache::size);
+            bindCache(registry, "verified-tokens", jwtService, JwtService::cacheStats, JwtService::cacheSize);
+            bindCache(registry, "user-profiles", userService, UserService::profileCacheStats, UserService::profileCacheSize);
+            Gauge.builder("cache.weighted.size", postDtoCache, PostDtoCache::weightedSize)
+                    .tag("cache", "post-dto").baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHasher hasher) {
+        return registry -> {
+            Gauge.builder("auth.password.queue.depth", hasher, PasswordHasher::queueDepth).register(registry);
+            Gauge.builder("auth.password.active.workers", hasher, PasswordHasher::activeWorkers).register(registry);
+            FunctionTimer.builder("auth.password.hash", hasher, PasswordHasher::hashCount, PasswordHasher::hashNanos, TimeUnit.NANOSECONDS)
+                    .register(registry);
+            FunctionTimer.builder("auth.password.queue.wait", hasher, PasswordHasher::hashCount, PasswordHasher::waitNanos, TimeUnit.NANOSECONDS)
+                    .register(registry);
+            FunctionCounter.builder("auth.password.rejected", hasher, PasswordHasher::rejectedCount).register(registry);
+            FunctionCounter.builder("auth.password.timed.out", hasher, PasswordHasher::timedOutCount).register(registry);
+            FunctionCounter.builder("auth.password.rehashed", hasher, PasswordHasher::rehashedCount).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder mediaMetrics(ImageProcessingService images, MediaStats media) {
+        return registry -> {
+            Gauge.builder("uploads.images.queue.depth", images, ImageProcessingService::queueDepth).register(registry);
+            Gauge.builder("uploads.images.active.workers", images, ImageProcessingService::activeWorkers).register(registry);
+            FunctionCounter.builder("uploads.images.rejected", images, ImageProcessingService::rejectedCount).register(registry);
+            FunctionCounter.builder("uploads.images.failed", images, ImageProcessingService::failedCount).register(registry);
+            FunctionCounter.builder("uploads.images.oversized", images, ImageProcessingService::oversizedCount).register(registry);
+            FunctionTimer.builder("uploads.images.processing", images,
+                            i -> i.completedCount() + i.failedCount(), ImageProcessingService::processingNanos, TimeUnit.NANOSECONDS)
+                    .register(registry);
+
+            FunctionTimer.builder("media.requests", media, MediaStats::requests, MediaStats::handlerNanos, TimeUnit.NANOSECONDS)
+                    .register(registry);
+            FunctionCounter.builder("media.not.modified", media, MediaStats::notModified).register(registry);
+            FunctionCounter.builder("media.partial", media, MediaStats::partial).register(registry);
+            FunctionCounter.builder("media.sendfile", media, MediaStats::sendfile).register(registry);
+            FunctionCounter.builder("media.bytes.served", media, MediaStats::bytesServed).baseUnit("bytes").register(registry);
+        };
+    }
+
+    // Same names and tags as Micrometer's own cache binders, from the Caffeine stats snapshot.
+    // Meters hold their state object weakly, so it is the owning bean rather than a method reference.
+    private static <T> void bindCache(MeterRegistry registry, String name, T owner,
+                                      Function<T, CacheStats> stats, ToDoubleFunction<T> size) {
+        FunctionCounter.builder("cache.gets", owner, o -> stats.apply(o).hitCount())
+                .tags("cache", name, "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", owner, o -> stats.apply(o).missCount())
+                .tags("cache", name, "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", owner, o -> stats.apply(o).evictionCount())
+                .tag("cache", name).register(registry);
+        Gauge.builder("cache.size", owner, size).tag("cache", name).register(registry);
+    }
+}
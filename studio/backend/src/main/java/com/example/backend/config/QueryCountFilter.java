@@ -0,0 +1,103 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements each request runs and the time spent in them. The counts are recorded
+ * per URI template as http.server.requests.queries and http.server.requests.db, optionally sent back
+ * as X-Query-Count / X-Query-Time-Ms headers, and a request that runs one statement shape more than
+ * query-count.repeat-threshold times is logged as a likely N+1.
+ *
+ * Scopes are thread-local and close when the filter returns. A {@code StreamingResponseBody} (the
+ * export endpoint) is written later on the async executor, outside any scope, so the statements it
+ * runs are not counted at all: not in the headers, the log or the meters.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryCountFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+    static final String COUNT_HEADER = "X-Query-Count";
+    static final String TIME_HEADER = "X-Query-Time-Ms";
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final boolean headers;
+    private final int repeatThreshold;
+
+    public QueryCountFilter(MeterRegistry registry,
+                            @Value("${query-count.enabled:true}") boolean enabled,
+                            @Value("${query-count.headers:false}") boolean headers,
+                            @Value("${query-count.repeat-threshold:5}") int repeatThreshold) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.headers = headers;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        QueryCounter.Stats stats = QueryCounter.start();
+        BeforeCommitResponse wrapped = headers ? new BeforeCommitResponse(response, () -> {
+            response.setHeader(COUNT_HEADER, Integer.toString(stats.statements()));
+            response.setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.2f", stats.millis()));
+        }) : null;
+        try {
+            chain.doFilter(request, wrapped != null ? wrapped : response);
+        } finally {
+            QueryCounter.stop(stats);
+            if (wrapped != null) {
+                wrapped.beforeCommit();
+            }
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryCounter.Stats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod().toUpperCase(Locale.ROOT);
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("SQL statements run per request")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(stats.statements());
+        Timer.builder("http.server.requests.db")
+                .description("Time spent executing SQL per request")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(stats.nanos(), TimeUnit.NANOSECONDS);
+
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        if (repeated != null && repeated.getValue() > repeatThreshold) {
+            log.warn("Possible N+1 on {} {}: {} of {} statements ({} ms) were: {}", method, request.getRequestURI(),
+                    repeated.getValue(), stats.statements(), String.format(Locale.ROOT, "%.1f", stats.millis()),
+                    repeated.getKey());
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.backend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the JDBC statements a thread executes, and the time spent in them, between {@link #start()}
+ * and {@link #stop(Stats)}. {@link QueryCountFilter} opens a scope per HTTP request; tests open their
+ * own to put a budget on a call. Scopes nest, and a statement is counted in every open scope.
+ *
+ * Only statements created while a scope is open are instrumented; scheduled flushes and startup
+ * work run on the raw driver statements.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Deque<Stats>> SCOPES = new ThreadLocal<>();
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QueryCounter() {
+    }
+
+    /** Opens a scope on the calling thread. */
+    public static Stats start() {
+        Deque<Stats> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        Stats stats = new Stats();
+        scopes.push(stats);
+        return stats;
+    }
+
+    /** Closes the given scope (and any left open inside it) and returns its final counts. */
+    public static Stats stop(Stats stats) {
+        Deque<Stats> scopes = SCOPES.get();
+        if (scopes == null) return stats;
+        if (scopes.contains(stats)) {
+            while (scopes.pop() != stats) {
+                // inner scopes that were never stopped
+            }
+        }
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+        return stats;
+    }
+
+    static boolean active() {
+        return SCOPES.get() != null;
+    }
+
+    static void record(String sql, long nanos) {
+        Deque<Stats> scopes = SCOPES.get();
+        if (scopes == null) return;
+        String shape = shape(sql);
+        for (Stats stats : scopes) {
+            stats.add(shape, nanos);
+        }
+    }
+
+    /**
+     * The statement with whitespace normalised and bind-parameter lists collapsed, so that
+     * {@code in (?, ?, ?)} and {@code in (?)} count as the same query.
+     */
+    static String shape(String sql) {
+        if (sql == null) return "<batch>";
+        String oneLine = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return PARAMETER_LIST.matcher(oneLine).replaceAll("?");
+    }
+
+    /** Wraps a data source so that statements run inside a scope are counted. */
+    static DataSource wrap(DataSource target) {
+        return new CountingDataSource(target);
+    }
+
+    /** Statement count, total execution time and per-shape counts of one scope. */
+    public static final class Stats {
+        private int statements;
+        private long nanos;
+        private final Map<String, Integer> shapes = new LinkedHashMap<>();
+
+        private void add(String shape, long elapsed) {
+            statements++;
+            nanos += elapsed;
+            shapes.merge(shape, 1, Integer::sum);
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+
+        public double millis() {
+            return nanos / 1_000_000.0;
+        }
+
+        /** Statement shapes in first-execution order, with how often each ran. */
+        public Map<String, Integer> shapes() {
+            return Collections.unmodifiableMap(shapes);
+        }
+
+        /** The shape that ran most often, or null if nothing ran. */
+        public Map.Entry<String, Integer> mostRepeated() {
+            Map.Entry<String, Integer> max = null;
+            for (Map.Entry<String, Integer> e : shapes.entrySet()) {
+                if (max == null || e.getValue() > max.getValue()) max = e;
+            }
+            return max;
+        }
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                default:
+            }
+            Object result = invokeTarget(target, method, args);
+            if (!active()) return result;
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, new StatementHandler(result, null));
+                case "prepareStatement" -> proxy(PreparedStatement.class, new StatementHandler(result, (String) args[0]));
+                case "prepareCall" -> proxy(CallableStatement.class, new StatementHandler(result, (String) args[0]));
+                default -> result;
+            };
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Object target;
+        private final String sql;
+
+        StatementHandler(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                default:
+            }
+            if (!method.getName().startsWith("execute")) {
+                return invokeTarget(target, method, args);
+            }
+            // Plain statements carry their SQL in the execute call; prepared ones got it up front
+            String executed = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                record(executed, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(QueryCounter.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's data source so {@link QueryCounter} sees every statement. The wrapper
+ * still unwraps to the pool (Hikari metrics and health checks find it), and outside a counting
+ * scope it only adds a thread-local lookup per statement. Off with query-count.enabled=false.
+ *
+ * Only the "dataSource" bean is wrapped; with read replicas the routing data source behind it
+ * is a bean too, and counting both would count every statement twice.
+ */
+@Component
+public class QueryCountingDataSourcePostProcessor implements BeanPostProcessor {
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private final boolean enabled;
+
+    public QueryCountingDataSourcePostProcessor(@Value("${query-count.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (enabled && DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource) {
+            return QueryCounter.wrap(dataSource);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting, on with datasource.replicas.enabled=true. The primary pool is built from
+ * spring.datasource.* as before; each URL in datasource.replicas.urls gets its own read-only pool
+ * with the same spring.datasource.hikari.* settings. The application's data source routes between
+ * them through {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaConfig.class);
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(DataSourceProperties properties, Environment environment,
+                                                      MeterRegistry registry,
+                                                      @Value("${datasource.replicas.urls:}") List<String> urls,
+                                                      @Value("${datasource.replicas.username:${spring.datasource.username:}}") String username,
+                                                      @Value("${datasource.replicas.password:${spring.datasource.password:}}") String password,
+                                                      @Value("${datasource.replicas.connection-timeout-ms:1000}") long connectionTimeoutMs,
+                                                      @Value("${datasource.replicas.read-your-writes-ms:5000}") long readYourWritesMs) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) continue;
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            binder.bind(HIKARI_PREFIX, Bindable.ofInstance(replica));
+            String poolName = primary.getPoolName() != null ? primary.getPoolName() : "primary";
+            replica.setPoolName(poolName + "-replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            // A replica that is down must not stop startup or hold a read for long: it is skipped instead
+            replica.setInitializationFailTimeout(-1);
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            // Not a bean, so Spring Boot does not bind its pool metrics
+            replica.setMetricRegistry(registry);
+            replicas.add(replica);
+        }
+        if (replicas.isEmpty()) {
+            log.warn("datasource.replicas.enabled is set but datasource.replicas.urls is empty; all reads go to the primary");
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWritesMs);
+    }
+
+    /** Defers the connection until the first statement, when the transaction's read-only flag is set. */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaRoutingDataSource routingDataSource,
+                                                     @Value("${datasource.replicas.read-your-writes-ms:5000}") long readYourWritesMs) {
+        return new ReadYourWritesFilter(routingDataSource, readYourWritesMs);
+    }
+}
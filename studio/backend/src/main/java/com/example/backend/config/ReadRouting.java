@@ -0,0 +1,78 @@
+package com.example.backend.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing hints for {@link ReplicaRoutingDataSource}. {@link ReadYourWritesFilter} opens
+ * a request scope, which records whether the request wrote (so the client is pinned to the primary
+ * for its next requests) and whether it read from a replica. Without replicas configured these
+ * are plain flags that nothing reads.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Request> REQUEST = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Runs {@code read} with read-only transactions routed to the primary. For loads whose result
+     * outlives the request, such as cache fills, where a lagging replica's answer would stick.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) PRIMARY_ONLY.remove();
+            else PRIMARY_ONLY.set(previous);
+        }
+    }
+
+    static void begin(boolean pinnedToPrimary) {
+        REQUEST.set(new Request(pinnedToPrimary));
+    }
+
+    static void end() {
+        REQUEST.remove();
+    }
+
+    /** True when reads on this thread must see the primary's data. */
+    static boolean primaryRequired() {
+        if (PRIMARY_ONLY.get() != null) return true;
+        Request request = REQUEST.get();
+        return request != null && (request.pinned || request.wrote);
+    }
+
+    static void wrote() {
+        Request request = REQUEST.get();
+        if (request != null) request.wrote = true;
+    }
+
+    static boolean requestWrote() {
+        Request request = REQUEST.get();
+        return request != null && request.wrote;
+    }
+
+    static void readReplica() {
+        Request request = REQUEST.get();
+        if (request != null) request.readReplica = true;
+    }
+
+    static boolean requestReadReplica() {
+        Request request = REQUEST.get();
+        return request != null && request.readReplica;
+    }
+
+    private static final class Request {
+        final boolean pinned;
+        boolean wrote;
+        boolean readReplica;
+
+        Request(boolean pinned) {
+            this.pinned = pinned;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-your-writes for clients of a replicated database. A request that writes gets an
+ * {@value #HEADER} response header holding the end of the read-your-writes window (epoch millis).
+ * The frontend's API client sends it back on its requests until then, and those requests read
+ * from the primary. It is a header rather than a cookie because the frontend calls the API
+ * cross-origin without credentials. It is also exposed through CORS, and it holds behind a load
+ * balancer. A value further ahead than one window is ignored, so a client cannot pin itself to
+ * the primary for longer.
+ *
+ * Other clients may still read from a replica that lacks the write. So that they do not cache
+ * such a response and then keep revalidating it with 304s, ETag and Last-Modified are left off
+ * responses read from a replica within the window after any write.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Primary-Until";
+
+    private final ReplicaRoutingDataSource routing;
+    private final long windowMs;
+
+    public ReadYourWritesFilter(ReplicaRoutingDataSource routing, long windowMs) {
+        this.routing = routing;
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        ReadRouting.begin(pinned(request));
+        Map<String, String> validators = new LinkedHashMap<>();
+        BeforeCommitResponse wrapped = new ValidatorHoldingResponse(response, validators, () -> {
+            if (ReadRouting.requestWrote()) {
+                response.setHeader(HEADER, Long.toString(System.currentTimeMillis() + windowMs));
+            }
+            if (!(ReadRouting.requestReadReplica() && routing.recentWrite())) {
+                validators.forEach(response::setHeader);
+            }
+        });
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            wrapped.beforeCommit();
+            ReadRouting.end();
+        }
+    }
+
+    private boolean pinned(HttpServletRequest request) {
+        String value = request.getHeader(HEADER);
+        if (value == null) return false;
+        long now = System.currentTimeMillis();
+        try {
+            long until = Long.parseLong(value.trim());
+            return until > now && until <= now + windowMs;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Holds ETag and Last-Modified back until the response commits, when it is known where the body was read from
+    private static final class ValidatorHoldingResponse extends BeforeCommitResponse {
+        private final Map<String, String> validators;
+
+        ValidatorHoldingResponse(HttpServletResponse response, Map<String, String> validators, Runnable callback) {
+            super(response, callback);
+            this.validators = validators;
+        }
+
+        private static boolean isValidator(String name) {
+            return HttpHeaders.ETAG.equalsIgnoreCase(name) || HttpHeaders.LAST_MODIFIED.equalsIgnoreCase(name);
+        }
+
+        private static String key(String name) {
+            return HttpHeaders.ETAG.equalsIgnoreCase(name) ? HttpHeaders.ETAG : HttpHeaders.LAST_MODIFIED;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (isValidator(name)) validators.put(key(name), value);
+            else super.setHeader(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (isValidator(name)) validators.put(key(name), value);
+            else super.addHeader(name, value);
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            if (!isValidator(name)) {
+                super.setDateHeader(name, date);
+                return;
+            }
+            HttpHeaders formatted = new HttpHeaders();
+            formatted.setDate(name, date);
+            validators.put(key(name), formatted.getFirst(name));
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            if (isValidator(name)) setDateHeader(name, date);
+            else super.addDateHeader(name, date);
+        }
+
+        @Override
+        public boolean containsHeader(String name) {
+            return isValidator(name) ? validators.containsKey(key(name)) : super.containsHeader(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isValidator(name) ? validators.get(key(name)) : super.getHeader(name);
+        }
+
+        @Override
+        public Collection<String> getHeaders(String name) {
+            if (!isValidator(name)) return super.getHeaders(name);
+            String value = validators.get(key(name));
+            return value == null ? List.of() : List.of(value);
+        }
+
+        @Override
+        public Collection<String> getHeaderNames() {
+            List<String> names = new ArrayList<>(super.getHeaderNames());
+            names.addAll(validators.keySet());
+            return names;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica (round robin) and everything else to the
+ * primary. Used behind a {@code LazyConnectionDataSourceProxy}, so the choice is made at the first
+ * statement, once the transaction's read-only flag is known.
+ *
+ * Reads stay on the primary when the request already wrote, when the client wrote within the
+ * read-your-writes window (see {@link ReadYourWritesFilter}), or inside {@link ReadRouting#onPrimary}.
+ * Replicas start out of rotation and join after their first passing health check. One that fails
+ * a check, or fails to hand out a connection, is skipped until it passes again; its reads fall back
+ * to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    static final String PRIMARY = "primary";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long readYourWritesNanos;
+    private volatile long lastWriteNanos;
+    private volatile boolean anyWrite;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools, long readYourWritesMs) {
+        this.primary = primary;
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMs);
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        for (HikariDataSource pool : replicaPools) {
+            Replica replica = new Replica(pool.getPoolName(), pool);
+            replicas.add(replica);
+            targets.put(replica.name, pool);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                lastWriteNanos = System.nanoTime();
+                anyWrite = true;
+                ReadRouting.wrote();
+            }
+            return PRIMARY;
+        }
+        if (ReadRouting.primaryRequired()) return PRIMARY;
+        Replica replica = nextHealthy();
+        return replica == null ? PRIMARY : replica.name;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) return primary.getConnection();
+        Replica replica = replicas.stream().filter(r -> r.name.equals(key)).findFirst().orElseThrow();
+        try {
+            Connection connection = replica.pool.getConnection();
+            ReadRouting.readReplica();
+            return connection;
+        } catch (SQLException e) {
+            markDown(replica, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    /** Validates a connection from every replica, taking failing ones out of rotation and bringing recovered ones back. */
+    @Scheduled(fixedDelayString = "${datasource.replicas.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            String failure;
+            try (Connection connection = replica.pool.getConnection()) {
+                failure = connection.isValid(VALIDATION_TIMEOUT_SECONDS) ? null : "connection not valid";
+            } catch (SQLException e) {
+                failure = e.getMessage();
+            }
+            if (failure != null) {
+                markDown(replica, failure);
+            } else if (!replica.healthy) {
+                replica.healthy = true;
+                log.info("Replica {} is healthy; routing reads to it", replica.name);
+            }
+        }
+    }
+
+    /**
+     * True within the read-your-writes window after any write through this instance. A replica
+     * may not have that write yet, so responses read from one should not be cached by validators.
+     */
+    boolean recentWrite() {
+        return anyWrite && System.nanoTime() - lastWriteNanos < readYourWritesNanos;
+    }
+
+    /** Names of the replicas currently in rotation. */
+    public List<String> healthyReplicas() {
+        return replicas.stream().filter(r -> r.healthy).map(r -> r.name).toList();
+    }
+
+    private Replica nextHealthy() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) return replica;
+        }
+        return null;
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Replica {} taken out of rotation, reads go to the primary: {}", replica.name, reason);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(r -> r.pool.close());
+        primary.close();
+    }
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource pool;
+        volatile boolean healthy;
+
+        Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+    }
+}
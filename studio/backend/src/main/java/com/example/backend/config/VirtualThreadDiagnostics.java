@@ -0,0 +1,78 @@
+package com.example.backend.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports virtual threads that get pinned to their carrier while blocking (a synchronized
+ * block or native frame around I/O), which silently caps throughput in virtual-thread mode.
+ *
+ * Listens to the JDK Flight Recorder event {@code jdk.VirtualThreadPinned} in-process and logs
+ * the top frames of each pin that lasts longer than the threshold. Only active when
+ * {@code spring.threads.virtual.enabled=true}; needs a JDK 21+ runtime to produce events.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadDiagnostics {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadDiagnostics.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int FRAMES_LOGGED = 8;
+
+    private final Duration threshold;
+    private final AtomicLong pinnedCount = new AtomicLong();
+    private RecordingStream stream;
+
+    public VirtualThreadDiagnostics(@Value("${virtual-threads.pinning-threshold-ms:20}") long thresholdMs) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled=true but running on Java {}; requests use platform threads",
+                    Runtime.version().feature());
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Virtual-thread mode active; logging pins longer than {} ms", threshold.toMillis());
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedCount.incrementAndGet();
+        StringBuilder frames = new StringBuilder();
+        if (event.getStackTrace() != null) {
+            int n = 0;
+            for (RecordedFrame f : event.getStackTrace().getFrames()) {
+                if (n++ == FRAMES_LOGGED) break;
+                frames.append("\n    at ").append(f.getMethod().getType().getName())
+                        .append('.').append(f.getMethod().getName())
+                        .append(':').append(f.getLineNumber());
+            }
+        }
+        log.warn("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), frames);
+    }
+
+    public long pinnedCount() {
+        return pinnedCount.get();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) stream.close();
+    }
+}
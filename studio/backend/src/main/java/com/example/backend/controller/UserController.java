@@ -1,10 +1,12 @@
 package com.example.backend.controller;
 
-import com.example.backend.dto.AuthResponse;
 import com.example.backend.dto.ChangePasswordRequest;
 import com.example.backend.dto.UpdateProfileRequest;
-import com.example.backend.model.User;
+import com.example.backend.service.AuthenticatedUser;
+import com.example.backend.service.PasswordHasherBusyException;
 import com.example.backend.service.UserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,27 +27,7 @@ public class UserController {
     @GetMapping("/{id}")
     public ResponseEntity<?> getUserProfile(@PathVariable Long id) {
         try {
-            User user = userService.getUserById(id);
-            
-            // Build user DTO with role
-            String role = "user";
-            if (user.getRoles() != null && !user.getRoles().isEmpty()) {
-                boolean isAdmin = user.getRoles().stream()
-                        .anyMatch(r -> "ADMIN".equalsIgnoreCase(r.getName()));
-                if (isAdmin) {
-                    role = "admin";
-                }
-            }
-
-            AuthResponse.UserDto userDto = new AuthResponse.UserDto(
-                    user.getId(),
-                    user.getEmail(),
-                    user.getFullName(),
-                    user.getPhotoUrl(),
-                    role
-            );
-
-            return ResponseEntity.ok(userDto);
+            return ResponseEntity.ok(userService.getProfile(id).toUserDto());
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -58,29 +40,11 @@ public class UserController {
     }
 
     @PutMapping("/{id}/profile")
-    public ResponseEntity<?> updateProfile(@PathVariable Long id, @RequestBody UpdateProfileRequest request) {
+    public ResponseEntity<?> updateProfile(@PathVariable Long id, @RequestBody UpdateProfileRequest request,
+            @RequestAttribute(name = AuthenticatedUser.REQUEST_ATTRIBUTE, required = false) AuthenticatedUser caller) {
+        if (caller == null || !caller.mayActFor(id)) return forbidden(caller);
         try {
-            User updatedUser = userService.updateProfile(id, request);
-
-            // Build user DTO
-            String role = "user";
-            if (updatedUser.getRoles() != null && !updatedUser.getRoles().isEmpty()) {
-                boolean isAdmin = updatedUser.getRoles().stream()
-                        .anyMatch(r -> "ADMIN".equalsIgnoreCase(r.getName()));
-                if (isAdmin) {
-                    role = "admin";
-                }
-            }
-
-            AuthResponse.UserDto userDto = new AuthResponse.UserDto(
-                    updatedUser.getId(),
-                    updatedUser.getEmail(),
-                    updatedUser.getFullName(),
-                    updatedUser.getPhotoUrl(),
-                    role
-            );
-
-            return ResponseEntity.ok(userDto);
+            return ResponseEntity.ok(userService.updateProfile(id, request).toUserDto());
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -93,7 +57,9 @@ public class UserController {
     }
 
     @PutMapping("/{id}/password")
-    public ResponseEntity<?> changePassword(@PathVariable Long id, @RequestBody ChangePasswordRequest request) {
+    public ResponseEntity<?> changePassword(@PathVariable Long id, @RequestBody ChangePasswordRequest request,
+            @RequestAttribute(name = AuthenticatedUser.REQUEST_ATTRIBUTE, required = false) AuthenticatedUser caller) {
+        if (caller == null || !caller.mayActFor(id)) return forbidden(caller);
         try {
             userService.changePassword(id, request);
             Map<String, String> response = new HashMap<>();
@@ -103,10 +69,27 @@ public class UserController {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
             return ResponseEntity.status(400).body(error);
+        } catch (PasswordHasherBusyException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to change password");
             return ResponseEntity.status(500).body(error);
         }
     }
+
+    // The filter answers 401 before these routes without a valid token; null is only a safety net
+    private static ResponseEntity<?> forbidden(AuthenticatedUser caller) {
+        Map<String, String> error = new HashMap<>();
+        if (caller == null) {
+            error.put("error", "Authentication required");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        }
+        error.put("error", "You can only change your own account");
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    }
 }
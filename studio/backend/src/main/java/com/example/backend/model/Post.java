@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_posts_status_created", columnList = "status, createdAt, id"),
+    @Index(name = "idx_posts_topic_created", columnList = "topic, status, createdAt"),
+    @Index(name = "idx_posts_author_created", columnList = "authorEmail, status, createdAt"),
+    @Index(name = "idx_posts_updated", columnList = "updatedAt")
+})
 public class Post {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,6 +40,11 @@ public class Post {
     private String imageUrl;
     private String status = "approved"; // or pending
 
+    // Bumped on every change to the row (including flushed reactions); drives HTTP ETags.
+    // Nullable so ddl-auto can add the columns to existing tables; null reads as 0 / createdAt.
+    private Long version = 0L;
+    private Instant updatedAt;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -70,4 +80,16 @@ public class Post {
 
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    /** Records a modification: increments the version and stamps updatedAt. */
+    public void touch() {
+        this.version = (version == null ? 0 : version) + 1;
+        this.updatedAt = Instant.now();
+    }
 }
@@ -0,0 +1,32 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Tombstone for a deleted post, so that a restart restoring an older snapshot can find the
+ * deletions it missed without reading every post id. Pruned after the snapshot retention.
+ */
+@Entity
+@Table(name = "post_deletions", indexes = {
+    @Index(name = "idx_post_deletions_deleted", columnList = "deletedAt")
+})
+public class PostDeletion {
+    @Id
+    private Long postId;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+
+    protected PostDeletion() {
+    }
+
+    public PostDeletion(Long postId, Instant deletedAt) {
+        this.postId = postId;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getPostId() { return postId; }
+
+    public Instant getDeletedAt() { return deletedAt; }
+}
@@ -0,0 +1,7 @@
+package com.example.backend.repository;
+
+/** Number of comments on one post. */
+public interface CommentCountView {
+    Long getPostId();
+    long getTotal();
+}
@@ -1,12 +1,47 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByPostId(Long postId);
+    // Keyset pages of one post's comments, oldest first; both use idx_comments_post_created
+    @Query("select c from Comment c where c.post.id = :postId order by c.createdAt asc, c.id asc")
+    List<Comment> findPageFirst(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("select c from Comment c where c.post.id = :postId"
+            + " and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id))"
+            + " order by c.createdAt asc, c.id asc")
+    List<Comment> findPageAfter(@Param("postId") Long postId,
+                                @Param("createdAt") Instant createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    @Query("select c.post.id as postId, count(c) as total from Comment c"
+            + " where c.post.id in :postIds group by c.post.id")
+    List<CommentCountView> countByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    @Query("select c.post.id as postId, count(c) as total from Comment c group by c.post.id")
+    List<CommentCountView> countGroupedByPost();
+
+    @Modifying
+    @Query("delete from Comment c where c.post.id in :postIds")
+    int deleteByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    // First few comments of each post in a page, in one query however many comments there are
+    @Query(value = "select t.id, t.post_id, t.author_name, t.author_email, t.content, t.created_at from ("
+            + " select c.*, row_number() over (partition by c.post_id order by c.created_at, c.id) as rn"
+            + " from comments c where c.post_id in (:postIds)) t"
+            + " where t.rn <= :perPost order by t.post_id, t.created_at, t.id",
+            nativeQuery = true)
+    List<Comment> findPreviews(@Param("postIds") Collection<Long> postIds, @Param("perPost") int perPost);
 }
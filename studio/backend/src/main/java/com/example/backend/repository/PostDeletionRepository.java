@@ -0,0 +1,24 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.PostDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PostDeletionRepository extends JpaRepository<PostDeletion, Long> {
+    // Startup catch-up: posts deleted since the snapshot; uses idx_post_deletions_deleted
+    @Query("select d.postId from PostDeletion d where d.deletedAt > :since")
+    List<Long> findPostIdsDeletedSince(@Param("since") Instant since);
+
+    @Modifying
+    @Transactional
+    @Query("delete from PostDeletion d where d.deletedAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
@@ -0,0 +1,28 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Post;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Feed and moderation queries with optional topic and author filters. Implemented by
+ * {@link PostFeedQueriesImpl}, which adds only the predicates that are set: an
+ * {@code (:topic is null or p.topic = :topic)} predicate keeps the database on the status index
+ * even when the topic or author index would serve the filter.
+ */
+public interface PostFeedQueries {
+
+    /**
+     * First page of the feed, newest first; the page size comes from the Pageable, the page number
+     * is ignored. {@code topic} and {@code author} may be null.
+     */
+    List<Post> findFeedFirstPage(String status, String topic, String author, Pageable page);
+
+    /** Next page of the feed: posts strictly older than (createdAt, id). */
+    List<Post> findFeedAfter(String status, String topic, String author, Instant createdAt, Long id, Pageable page);
+
+    /** Ids of the posts a bulk moderation filter selects, in id order. */
+    List<Long> findIdsByFilter(String status, String topic, String author, Pageable page);
+}
@@ -0,0 +1,65 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Post;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+// Read-only like the derived and @Query methods, so with replicas configured these read one
+@Transactional(readOnly = true)
+class PostFeedQueriesImpl implements PostFeedQueries {
+
+    private static final String NEWEST_FIRST = " order by p.createdAt desc, p.id desc";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Post> findFeedFirstPage(String status, String topic, String author, Pageable page) {
+        String jpql = "select p from Post p where " + filter(topic, author) + NEWEST_FIRST;
+        return page(bind(entityManager.createQuery(jpql, Post.class), status, topic, author), page);
+    }
+
+    @Override
+    public List<Post> findFeedAfter(String status, String topic, String author, Instant createdAt, Long id,
+                                    Pageable page) {
+        String jpql = "select p from Post p where " + filter(topic, author)
+                + " and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id))" + NEWEST_FIRST;
+        TypedQuery<Post> query = bind(entityManager.createQuery(jpql, Post.class), status, topic, author)
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", id);
+        return page(query, page);
+    }
+
+    @Override
+    public List<Long> findIdsByFilter(String status, String topic, String author, Pageable page) {
+        String jpql = "select p.id from Post p where " + filter(topic, author) + " order by p.id";
+        return page(bind(entityManager.createQuery(jpql, Long.class), status, topic, author), page);
+    }
+
+    private static String filter(String topic, String author) {
+        StringBuilder where = new StringBuilder("p.status = :status");
+        if (topic != null) where.append(" and p.topic = :topic");
+        if (author != null) where.append(" and p.authorEmail = :author");
+        return where.toString();
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, String status, String topic, String author) {
+        query.setParameter("status", status);
+        if (topic != null) query.setParameter("topic", topic);
+        if (author != null) query.setParameter("author", author);
+        return query;
+    }
+
+    private static <T> List<T> page(TypedQuery<T> query, Pageable page) {
+        if (page.isPaged()) {
+            query.setFirstResult((int) page.getOffset()).setMaxResults(page.getPageSize());
+        }
+        return query.getResultList();
+    }
+}
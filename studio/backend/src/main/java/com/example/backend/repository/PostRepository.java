@@ -1,12 +1,64 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long> {
+public interface PostRepository extends JpaRepository<Post, Long>, PostFeedQueries {
     List<Post> findByTitleContainingIgnoreCase(String q);
+
+    @Query("select p.version as version, p.updatedAt as updatedAt, p.createdAt as createdAt"
+            + " from Post p where p.id = :id")
+    Optional<PostVersionView> findVersionById(@Param("id") Long id);
+
+    // Marks a post modified without loading it (e.g. when a comment is added)
+    @Transactional
+    @Modifying
+    @Query("update Post p set p.version = coalesce(p.version, 0) + 1, p.updatedAt = :now where p.id = :id")
+    int touch(@Param("id") Long id, @Param("now") Instant now);
+
+    // Bulk moderation: resolve a filter (PostFeedQueries) or an id list, then change all rows in one statement
+    @Query("select p.id as id, p.status as status from Post p where p.id in :ids")
+    List<PostStatusView> findStatusByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Post p set p.status = :status, p.version = coalesce(p.version, 0) + 1, p.updatedAt = :now"
+            + " where p.id in :ids and p.status <> :status")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") String status, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from Post p where p.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Startup catch-up after a snapshot: posts changed since (deletions come from PostDeletionRepository)
+    @Query("select p from Post p where p.updatedAt > :since and p.id > :afterId and p.id <= :maxId order by p.id")
+    List<Post> findChangedSince(@Param("since") Instant since,
+                                @Param("afterId") Long afterId,
+                                @Param("maxId") Long maxId,
+                                Pageable page);
+
+    // Id-ordered batches for rebuilding in-memory indexes
+    List<Post> findByIdGreaterThanOrderByIdAsc(Long id, Pageable page);
+
+    // Scrolls through posts in id order for exports; must be consumed inside a transaction.
+    // On MySQL the fetch size is only honoured with useCursorFetch=true on the JDBC URL.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Post p where (:status is null or p.status = :status) order by p.id")
+    Stream<Post> streamByStatus(@Param("status") String status);
 }
@@ -0,0 +1,7 @@
+package com.example.backend.repository;
+
+/** Id and status of a post, loaded without its content. */
+public interface PostStatusView {
+    Long getId();
+    String getStatus();
+}
@@ -0,0 +1,10 @@
+package com.example.backend.repository;
+
+import java.time.Instant;
+
+/** Version columns of a post, loaded without its content. */
+public interface PostVersionView {
+    Long getVersion();
+    Instant getUpdatedAt();
+    Instant getCreatedAt();
+}
@@ -2,11 +2,21 @@ package com.example.backend.repository;
 
 import com.example.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    /** Replaces only the password hash, so a concurrent profile edit is not overwritten. */
+    @Modifying
+    @Transactional
+    @Query("update User u set u.passwordHash = :hash where u.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("hash") String hash);
 }
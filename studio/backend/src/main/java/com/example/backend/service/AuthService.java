@@ -7,35 +7,30 @@ import com.example.backend.model.Role;
 import com.example.backend.model.User;
 import com.example.backend.repository.RoleRepository;
 import com.example.backend.repository.UserRepository;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
-import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 
 @Service
 public class AuthService {
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-
-    private final Key jwtKey;
-    private final long jwtExpirationMs;
+    private final PasswordHasher passwordHasher;
+    private final JwtService jwtService;
+    private final UserService userService;
 
     public AuthService(UserRepository userRepository, RoleRepository roleRepository,
-                       @Value("${jwt.secret}") String jwtSecret,
-                       @Value("${jwt.expiration-ms}") long jwtExpirationMs) {
+                       PasswordHasher passwordHasher, JwtService jwtService, UserService userService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
-        this.jwtKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        this.jwtExpirationMs = jwtExpirationMs;
+        this.passwordHasher = passwordHasher;
+        this.jwtService = jwtService;
+        this.userService = userService;
     }
 
     public AuthResponse register(RegisterRequest req) {
@@ -45,7 +40,7 @@ public class AuthService {
 
         User user = new User();
         user.setEmail(req.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(req.getPassword()));
+        user.setPasswordHash(passwordHasher.encode(req.getPassword()));
         user.setFullName(req.getFullName());
 
         // give default USER role if exists
@@ -57,54 +52,31 @@ public class AuthService {
 
         userRepository.save(user);
 
-        String token = generateToken(user);
-        AuthResponse.UserDto userDto = buildUserDto(user);
-        return new AuthResponse(token, userDto);
+        return respond(user);
     }
 
     public AuthResponse login(LoginRequest req) {
         User user = userRepository.findByEmail(req.getEmail())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid credentials"));
 
-        if (!passwordEncoder.matches(req.getPassword(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(req.getPassword(), user.getPasswordHash())) {
             throw new IllegalArgumentException("Invalid credentials");
         }
 
-        String token = generateToken(user);
-        AuthResponse.UserDto userDto = buildUserDto(user);
-        return new AuthResponse(token, userDto);
-    }
-
-    private AuthResponse.UserDto buildUserDto(User user) {
-        String role = "user";
-        if (user.getRoles() != null && !user.getRoles().isEmpty()) {
-            // Check if user has ADMIN role
-            boolean isAdmin = user.getRoles().stream()
-                    .anyMatch(r -> "ADMIN".equalsIgnoreCase(r.getName()));
-            if (isAdmin) {
-                role = "admin";
-            }
+        // The password is known to be right here, so move the hash to the configured cost
+        if (passwordHasher.needsRehash(user.getPasswordHash())) {
+            user.setPasswordHash(passwordHasher.encode(req.getPassword()));
+            userRepository.save(user);
+            passwordHasher.recordRehash();
+            log.info("Rehashed password for user {} at cost {}", user.getId(), passwordHasher.strength());
         }
 
-        return new AuthResponse.UserDto(
-                user.getId(),
-                user.getEmail(),
-                user.getFullName(),
-                user.getPhotoUrl(), // photoURL from database
-                role
-        );
+        return respond(user);
     }
 
-    private String generateToken(User user) {
-        Date now = new Date();
-        Date exp = new Date(now.getTime() + jwtExpirationMs);
-
-        return Jwts.builder()
-                .setSubject(user.getId().toString())
-                .claim("email", user.getEmail())
-                .setIssuedAt(now)
-                .setExpiration(exp)
-                .signWith(jwtKey, SignatureAlgorithm.HS256)
-                .compact();
+    private AuthResponse respond(User user) {
+        UserProfile profile = userService.cacheProfile(user);
+        String token = jwtService.generateToken(user, profile.role());
+        return new AuthResponse(token, profile.toUserDto());
     }
 }
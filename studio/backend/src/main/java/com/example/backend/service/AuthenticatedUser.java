@@ -0,0 +1,21 @@
+package com.example.backend.service;
+
+import java.time.Instant;
+
+/** Claims of a verified access token: who the caller is and until when the token is valid. */
+public record AuthenticatedUser(Long id, String email, String role, Instant expiresAt) {
+    /**
+     * Request attribute under which the authentication filter stores the caller. A literal so
+     * handlers can take it with {@code @RequestAttribute}.
+     */
+    public static final String REQUEST_ATTRIBUTE = "com.example.backend.service.AuthenticatedUser";
+
+    public boolean isAdmin() {
+        return "admin".equals(role);
+    }
+
+    /** Whether the caller may change the account of the given user: their own, or any as an admin. */
+    public boolean mayActFor(Long userId) {
+        return isAdmin() || id.equals(userId);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.backend.service;
+
+import com.example.backend.web.dto.CommentResponseDto;
+
+import java.util.List;
+
+/**
+ * One page of a post's comments, oldest first. {@code nextCursor} is null on the last page.
+ */
+public record CommentPage(List<CommentResponseDto> comments, String nextCursor) {
+}
@@ -0,0 +1,191 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Post;
+import com.example.backend.model.PostDeletion;
+import com.example.backend.repository.CommentCountView;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.repository.PostDeletionRepository;
+import com.example.backend.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Fills the in-memory search index, trending ranker and feed index at startup.
+ *
+ * With a usable {@link DerivedStateSnapshot} it loads that and then only reads what changed
+ * since: posts with a higher id than the snapshot's maximum, posts whose {@code updatedAt} is
+ * after the snapshot time, and the {@link PostDeletion} tombstones written since. Every write
+ * path bumps {@code updatedAt} and every delete leaves a tombstone, so that is enough to catch
+ * up. Tombstones are kept for {@code snapshot.deletions-retention-ms}; an older snapshot is
+ * ignored. Without a snapshot it reads the posts table once, feeding all three structures from
+ * the same pass. Afterwards the DTO cache is warmed with the posts that were hot when the
+ * snapshot was taken.
+ *
+ * Loading runs on {@link ApplicationReadyEvent}, when Tomcat already accepts connections, but
+ * before Spring Boot reports the readiness state as accepting traffic, so a load balancer that
+ * checks {@code /actuator/health/readiness} keeps traffic away until it is done. Requests that
+ * arrive anyway are correct, only slower: until each structure is marked ready, search,
+ * trending and the filtered feeds are answered by the database. Writes made during the load are
+ * applied to the structures as usual, and a last pass re-reads everything changed or deleted
+ * since the load started, in case a batch read just before such a write put the old row back.
+ */
+@Component
+public class DerivedStateBootstrap {
+    private static final Logger log = LoggerFactory.getLogger(DerivedStateBootstrap.class);
+    private static final int BATCH = 1000;
+    // Allows for clock skew and for rows written shortly before the snapshot but committed after
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(1);
+
+    private final PostRepository repo;
+    private final CommentRepository commentRepo;
+    private final PostDeletionRepository deletions;
+    private final PostSearchIndex searchIndex;
+    private final TrendingRanker trending;
+    private final FeedIndex feedIndex;
+    private final DerivedStateSnapshot snapshot;
+    private final PostService postService;
+    private final Duration deletionsRetention;
+
+    public DerivedStateBootstrap(PostRepository repo, CommentRepository commentRepo, PostDeletionRepository deletions,
+                                 PostSearchIndex searchIndex, TrendingRanker trending, FeedIndex feedIndex,
+                                 DerivedStateSnapshot snapshot, PostService postService,
+                                 @Value("${snapshot.deletions-retention-ms:604800000}") long deletionsRetentionMs) {
+        this.repo = repo;
+        this.commentRepo = commentRepo;
+        this.deletions = deletions;
+        this.searchIndex = searchIndex;
+        this.trending = trending;
+        this.feedIndex = feedIndex;
+        this.snapshot = snapshot;
+        this.postService = postService;
+        this.deletionsRetention = Duration.ofMillis(deletionsRetentionMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        Instant loadStarted = Instant.now();
+        Optional<DerivedStateSnapshot.Restored> restored = snapshot.restore();
+        if (restored.isPresent() && restored.get().takenAt().isBefore(loadStarted.minus(deletionsRetention))) {
+            log.info("Snapshot taken at {} is older than the deletion tombstones; rebuilding", restored.get().takenAt());
+            restored = Optional.empty();
+        }
+        if (restored.isPresent()) {
+            catchUp(restored.get());
+        } else {
+            fullLoad();
+        }
+        int reread = applyChangesSince(loadStarted.minus(CATCH_UP_MARGIN), Long.MAX_VALUE);
+        log.debug("Re-read {} posts changed while loading", reread);
+        searchIndex.markReady();
+        trending.markReady();
+        feedIndex.markReady();
+        snapshot.arm();
+        log.info("In-memory indexes ready in {} ms ({})", (System.nanoTime() - started) / 1_000_000,
+                restored.isPresent() ? "from snapshot" : "from database");
+
+        if (restored.isPresent() && !restored.get().hotPostIds().isEmpty()) {
+            long warmStarted = System.nanoTime();
+            int warmed = postService.warmCache(restored.get().hotPostIds());
+            log.info("Warmed post cache with {} posts in {} ms", warmed, (System.nanoTime() - warmStarted) / 1_000_000);
+        }
+    }
+
+    private void fullLoad() {
+        searchIndex.clear();
+        trending.clear();
+        feedIndex.clear();
+        Map<Long, Long> comments = new HashMap<>();
+        for (CommentCountView row : commentRepo.countGroupedByPost()) {
+            comments.put(row.getPostId(), row.getTotal());
+        }
+        long lastId = 0;
+        int count = 0;
+        List<Post> batch;
+        do {
+            batch = repo.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BATCH));
+            for (Post p : batch) {
+                indexAll(p, comments.getOrDefault(p.getId(), 0L));
+                lastId = p.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == BATCH);
+        log.info("Loaded {} posts from the database", count);
+    }
+
+    private void catchUp(DerivedStateSnapshot.Restored restored) {
+        // Created after the snapshot
+        int added = 0;
+        long lastId = restored.maxPostId();
+        List<Post> batch;
+        do {
+            batch = repo.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BATCH));
+            indexBatch(batch);
+            if (!batch.isEmpty()) lastId = batch.get(batch.size() - 1).getId();
+            added += batch.size();
+        } while (batch.size() == BATCH);
+
+        // Changed (status, comments, flushed reactions all touch updatedAt) or deleted after the snapshot
+        int changed = applyChangesSince(restored.takenAt().minus(CATCH_UP_MARGIN), restored.maxPostId());
+        log.info("Caught up since snapshot: {} new, {} changed or deleted posts", added, changed);
+    }
+
+    /**
+     * Re-indexes posts with an id up to {@code maxId} updated after {@code since} and drops the
+     * posts deleted after it. Returns how many posts were touched.
+     */
+    private int applyChangesSince(Instant since, long maxId) {
+        int changed = 0;
+        long lastId = 0;
+        List<Post> batch;
+        do {
+            batch = repo.findChangedSince(since, lastId, maxId, PageRequest.of(0, BATCH));
+            indexBatch(batch);
+            if (!batch.isEmpty()) lastId = batch.get(batch.size() - 1).getId();
+            changed += batch.size();
+        } while (batch.size() == BATCH);
+
+        List<Long> gone = deletions.findPostIdsDeletedSince(since);
+        for (Long id : gone) {
+            searchIndex.remove(id);
+            trending.remove(id);
+            feedIndex.remove(id);
+        }
+        return changed + gone.size();
+    }
+
+    /** Drops tombstones too old to matter: a snapshot from before them is not restored. */
+    @Scheduled(fixedDelayString = "${snapshot.interval-ms:300000}", initialDelayString = "${snapshot.interval-ms:300000}")
+    public void pruneDeletions() {
+        int pruned = deletions.deleteOlderThan(Instant.now().minus(deletionsRetention).minus(CATCH_UP_MARGIN));
+        if (pruned > 0) log.debug("Pruned {} post tombstones", pruned);
+    }
+
+    private void indexBatch(List<Post> batch) {
+        if (batch.isEmpty()) return;
+        Map<Long, Long> comments = new HashMap<>();
+        for (CommentCountView row : commentRepo.countByPostIds(batch.stream().map(Post::getId).toList())) {
+            comments.put(row.getPostId(), row.getTotal());
+        }
+        for (Post p : batch) indexAll(p, comments.getOrDefault(p.getId(), 0L));
+    }
+
+    private void indexAll(Post p, long comments) {
+        searchIndex.index(p);
+        trending.add(p, comments);
+        feedIndex.index(p);
+    }
+}
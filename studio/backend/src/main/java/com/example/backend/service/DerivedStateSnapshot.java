@@ -0,0 +1,233 @@
+package com.example.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Periodically writes the backend's derived in-memory state to a file so a restart can load it
+ * instead of rebuilding it from the posts table.
+ *
+ * The file holds, in order: the search index (documents and postings), the trending counts,
+ * the feed index entries and the ids of the hottest cached post DTOs. A fixed header records
+ * when the snapshot was taken, the highest post id at that time and a CRC32 of the body; a
+ * file with a bad header or checksum is ignored. Files are written to a temporary name and
+ * moved into place, so a crash mid-write leaves the previous snapshot intact. Neither writing
+ * nor restoring maps the file, so no mapping outlives the channel and keeps the file locked
+ * against the next rename (Windows refuses to replace or truncate a mapped file).
+ *
+ * Sections are written one after the other while the application keeps serving, so they are
+ * not a single consistent cut. That is fine because {@link DerivedStateBootstrap} re-reads
+ * every post created or updated after the recorded start time.
+ */
+@Component
+public class DerivedStateSnapshot {
+    private static final Logger log = LoggerFactory.getLogger(DerivedStateSnapshot.class);
+
+    private static final int MAGIC = 0x43534E50; // "CSNP"
+    // 2: search documents carry topic and author
+    private static final int FORMAT_VERSION = 2;
+    // magic, version, takenAt, maxPostId, body length, body CRC32
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 8 + 8;
+    private static final int SECTION_SEARCH = 1;
+    private static final int SECTION_TRENDING = 2;
+    private static final int SECTION_FEED = 3;
+    private static final int SECTION_HOT_POSTS = 4;
+    private static final int SECTION_END = 0x454E4421; // "END!"
+
+    /** What a restored snapshot covers; the caller must catch up on everything after it. */
+    public record Restored(Instant takenAt, long maxPostId, List<Long> hotPostIds) {
+    }
+
+    private final PostSearchIndex searchIndex;
+    private final TrendingRanker trending;
+    private final FeedIndex feedIndex;
+    private final PostDtoCache dtoCache;
+    private final boolean enabled;
+    private final Path path;
+    private final int hotPosts;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Set once startup loading is done; writing before that would save a half-built state
+    private volatile boolean armed;
+
+    public DerivedStateSnapshot(PostSearchIndex searchIndex, TrendingRanker trending, FeedIndex feedIndex,
+                                PostDtoCache dtoCache,
+                                @Value("${snapshot.enabled:true}") boolean enabled,
+                                @Value("${snapshot.path:data/derived-state.snap}") String path,
+                                @Value("${snapshot.hot-posts:1000}") int hotPosts) {
+        this.searchIndex = searchIndex;
+        this.trending = trending;
+        this.feedIndex = feedIndex;
+        this.dtoCache = dtoCache;
+        this.enabled = enabled;
+        this.path = Paths.get(path).toAbsolutePath().normalize();
+        this.hotPosts = hotPosts;
+    }
+
+    void arm() {
+        armed = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${snapshot.interval-ms:300000}",
+            initialDelayString = "${snapshot.interval-ms:300000}")
+    public void scheduledWrite() {
+        if (armed) write();
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        if (armed) write();
+    }
+
+    /** Writes a new snapshot, replacing the previous one. Failures are logged, never thrown. */
+    public void write() {
+        writeLock.lock();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            long started = System.nanoTime();
+            // Taken before any section is read, so catch-up covers whatever changes while writing
+            Instant takenAt = Instant.now();
+            // From memory, not the database: at shutdown the datasource may already be closed
+            long maxPostId = trending.maxPostId();
+            Files.createDirectories(path.getParent());
+            long size;
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                SnapshotWriter out = new SnapshotWriter(ch, HEADER_BYTES);
+                out.putInt(SECTION_SEARCH);
+                searchIndex.writeTo(out);
+                out.putInt(SECTION_TRENDING);
+                trending.writeTo(out);
+                out.putInt(SECTION_FEED);
+                feedIndex.writeTo(out);
+                out.putInt(SECTION_HOT_POSTS);
+                List<Long> hot = dtoCache.hottest(hotPosts);
+                out.putInt(hot.size());
+                for (Long id : hot) out.putLong(id);
+                out.putInt(SECTION_END);
+                out.finish();
+                size = out.position();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                        .putInt(MAGIC).putInt(FORMAT_VERSION)
+                        .putLong(takenAt.toEpochMilli()).putLong(maxPostId)
+                        .putLong(size - HEADER_BYTES).putLong(out.checksum())
+                        .flip();
+                while (header.hasRemaining()) ch.write(header, header.position());
+                ch.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Snapshot written to {}: {} KB in {} ms",
+                    path, size / 1024, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not write snapshot to {}", path, e);
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // best effort
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Loads the snapshot into the search index, trending ranker and feed index. Returns empty,
+     * leaving them untouched or cleared, if there is no usable snapshot.
+     */
+    public Optional<Restored> restore() {
+        if (!enabled || !Files.isRegularFile(path)) return Optional.empty();
+        long started = System.nanoTime();
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES) {
+                log.warn("Ignoring snapshot {}: unexpected size {}", path, size);
+                return Optional.empty();
+            }
+            ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES);
+            int read = ch.read(buf, 0);
+            buf.flip();
+            if (read < HEADER_BYTES || buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) {
+                log.warn("Ignoring snapshot {}: not a format {} snapshot", path, FORMAT_VERSION);
+                return Optional.empty();
+            }
+            Instant takenAt = Instant.ofEpochMilli(buf.getLong());
+            long maxPostId = buf.getLong();
+            long bodyLength = buf.getLong();
+            long expectedCrc = buf.getLong();
+            if (bodyLength != size - HEADER_BYTES) {
+                log.warn("Ignoring snapshot {}: truncated", path);
+                return Optional.empty();
+            }
+            if (checksum(ch, HEADER_BYTES, size) != expectedCrc) {
+                log.warn("Ignoring snapshot {}: checksum mismatch", path);
+                return Optional.empty();
+            }
+
+            SnapshotReader in = new SnapshotReader(ch, HEADER_BYTES, size);
+            try {
+                expect(in, SECTION_SEARCH);
+                searchIndex.readFrom(in);
+                expect(in, SECTION_TRENDING);
+                trending.readFrom(in);
+                expect(in, SECTION_FEED);
+                feedIndex.readFrom(in);
+                expect(in, SECTION_HOT_POSTS);
+                int n = in.getInt();
+                List<Long> hot = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) hot.add(in.getLong());
+                expect(in, SECTION_END);
+                log.info("Snapshot {} taken at {} restored in {} ms",
+                        path, takenAt, (System.nanoTime() - started) / 1_000_000);
+                return Optional.of(new Restored(takenAt, maxPostId, hot));
+            } catch (RuntimeException e) {
+                searchIndex.clear();
+                trending.clear();
+                feedIndex.clear();
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable snapshot {}", path, e);
+            return Optional.empty();
+        }
+    }
+
+    private static long checksum(FileChannel ch, long from, long to) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 20);
+        for (long pos = from; pos < to; ) {
+            chunk.clear().limit((int) Math.min(chunk.capacity(), to - pos));
+            int n = ch.read(chunk, pos);
+            if (n < 0) break;
+            pos += n;
+            crc.update(chunk.flip());
+        }
+        return crc.getValue();
+    }
+
+    private static void expect(SnapshotReader in, int section) {
+        int found = in.getInt();
+        if (found != section) {
+            throw new IllegalStateException("Expected snapshot section " + section + " but found " + found);
+        }
+    }
+}
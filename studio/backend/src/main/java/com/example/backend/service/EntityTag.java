@@ -0,0 +1,7 @@
+package com.example.backend.service;
+
+import java.time.Instant;
+
+/** Validator pair for HTTP conditional requests: a strong ETag and a last-modified time. */
+public record EntityTag(String etag, Instant lastModified) {
+}
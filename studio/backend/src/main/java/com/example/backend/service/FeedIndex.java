@@ -0,0 +1,263 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Post;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Secondary indexes for the topic and author feed filters: for every (status, topic) and
+ * (status, author) pair, the matching post ids sorted by (createdAt, id).
+ *
+ * Each list is a pair of parallel {@code long[]} arrays, creation time in epoch nanoseconds and
+ * post id, so a list costs 16 bytes per post and a page is a binary search for the cursor plus
+ * a backwards walk of {@code limit} slots. New posts are nearly always the newest and go on
+ * the end; anything else is an arraycopy. Filled by {@link DerivedStateBootstrap} at startup
+ * and kept current by {@link PostService}.
+ */
+@Component
+public class FeedIndex {
+    private static final Logger log = LoggerFactory.getLogger(FeedIndex.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IdList> byTopic = new HashMap<>();
+    private final Map<String, IdList> byAuthor = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private volatile boolean ready;
+
+    /** Called once the startup load is complete; filtered feeds are served by the database until then. */
+    public void markReady() {
+        ready = true;
+        log.info("Feed indexes ready: {} posts, {} topic and {} author lists",
+                entries.size(), byTopic.size(), byAuthor.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Adds a post, replacing any previously indexed version of it. */
+    public void index(Post p) {
+        Entry e = new Entry(nanos(p.getCreatedAt()), p.getStatus(), p.getTopic(), p.getAuthorEmail());
+        lock.writeLock().lock();
+        try {
+            removeLocked(p.getId());
+            entries.put(p.getId(), e);
+            addLocked(p.getId(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStatus(Long postId, String status) {
+        lock.writeLock().lock();
+        try {
+            Entry e = entries.get(postId);
+            if (e == null || Objects.equals(e.status, status)) return;
+            removeLocked(postId);
+            Entry moved = new Entry(e.created, status, e.topic, e.author);
+            entries.put(postId, moved);
+            addLocked(postId, moved);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keys (createdAt, id) of up to {@code limit} posts with the given status and topic and/or
+     * author, newest first, strictly after {@code after} (or from the newest if null). At least
+     * one of {@code topic} and {@code author} must be given. Each key is also the cursor that
+     * continues after that post.
+     */
+    public List<KeysetCursor> page(String status, String topic, String author, KeysetCursor after, int limit) {
+        lock.readLock().lock();
+        try {
+            IdList byT = topic == null ? null : byTopic.get(key(status, topic));
+            IdList byA = author == null ? null : byAuthor.get(key(status, author));
+            if ((topic != null && byT == null) || (author != null && byA == null)) return List.of();
+            // Walk the shorter list and check the other filter per post
+            IdList list = byT == null ? byA : byA == null ? byT : (byT.size <= byA.size ? byT : byA);
+            boolean checkTopic = topic != null && list != byT;
+            boolean checkAuthor = author != null && list != byA;
+
+            int i = after == null ? list.size - 1 : list.indexBefore(nanos(after.createdAt()), after.id());
+            List<KeysetCursor> keys = new ArrayList<>(Math.min(limit, list.size));
+            for (; i >= 0 && keys.size() < limit; i--) {
+                long id = list.ids[i];
+                if (checkTopic || checkAuthor) {
+                    Entry e = entries.get(id);
+                    if (checkTopic && !topic.equals(e.topic)) continue;
+                    if (checkAuthor && !author.equals(e.author)) continue;
+                }
+                keys.add(new KeysetCursor(instant(list.created[i]), id));
+            }
+            return keys;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            byTopic.clear();
+            byAuthor.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void writeTo(SnapshotWriter out) {
+        lock.readLock().lock();
+        try {
+            out.putInt(entries.size());
+            for (Map.Entry<Long, Entry> me : entries.entrySet()) {
+                Entry e = me.getValue();
+                out.putLong(me.getKey());
+                out.putLong(e.created);
+                out.putString(e.status);
+                out.putString(e.topic);
+                out.putString(e.author);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Replaces all lists with the posts written by {@link #writeTo}. */
+    void readFrom(SnapshotReader in) {
+        int n = in.getInt();
+        long[] ids = new long[n];
+        Entry[] loaded = new Entry[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = in.getLong();
+            loaded[i] = new Entry(in.getLong(), in.getString(), in.getString(), in.getString());
+            order[i] = i;
+        }
+        // Insert oldest first so every insert is an append
+        Arrays.sort(order, (a, b) -> IdList.compare(loaded[a].created, ids[a], loaded[b].created, ids[b]));
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            byTopic.clear();
+            byAuthor.clear();
+            for (int i : order) {
+                entries.put(ids[i], loaded[i]);
+                addLocked(ids[i], loaded[i]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(long id, Entry e) {
+        if (e.topic != null) byTopic.computeIfAbsent(key(e.status, e.topic), k -> new IdList()).insert(e.created, id);
+        if (e.author != null) byAuthor.computeIfAbsent(key(e.status, e.author), k -> new IdList()).insert(e.created, id);
+    }
+
+    private void removeLocked(long id) {
+        Entry e = entries.remove(id);
+        if (e == null) return;
+        if (e.topic != null) removeFrom(byTopic, key(e.status, e.topic), e.created, id);
+        if (e.author != null) removeFrom(byAuthor, key(e.status, e.author), e.created, id);
+    }
+
+    private static void removeFrom(Map<String, IdList> lists, String key, long created, long id) {
+        IdList list = lists.get(key);
+        if (list == null) return;
+        list.remove(created, id);
+        if (list.size == 0) lists.remove(key);
+    }
+
+    private static String key(String status, String value) {
+        return status + '\u0000' + value;
+    }
+
+    private static long nanos(Instant t) {
+        return t.getEpochSecond() * 1_000_000_000L + t.getNano();
+    }
+
+    private static Instant instant(long nanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+    }
+
+    private record Entry(long created, String status, String topic, String author) {
+    }
+
+    /** Post ids sorted ascending by (created, id), in two parallel primitive arrays. */
+    private static final class IdList {
+        long[] created = new long[8];
+        long[] ids = new long[8];
+        int size;
+
+        void insert(long c, long id) {
+            if (size == ids.length) {
+                created = Arrays.copyOf(created, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            int pos = size;
+            if (size > 0 && compare(created[size - 1], ids[size - 1], c, id) > 0) {
+                pos = -search(c, id) - 1;
+                System.arraycopy(created, pos, created, pos + 1, size - pos);
+                System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            }
+            created[pos] = c;
+            ids[pos] = id;
+            size++;
+        }
+
+        void remove(long c, long id) {
+            int pos = search(c, id);
+            if (pos < 0) return;
+            System.arraycopy(created, pos + 1, created, pos, size - pos - 1);
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+        }
+
+        /** Index of the last element strictly before (c, id), or -1. */
+        int indexBefore(long c, long id) {
+            int pos = search(c, id);
+            return (pos >= 0 ? pos : -pos - 1) - 1;
+        }
+
+        // Binary search; returns the index, or -(insertion point) - 1 like Arrays.binarySearch
+        private int search(long c, long id) {
+            int lo = 0;
+            int hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = compare(created[mid], ids[mid], c, id);
+                if (cmp < 0) lo = mid + 1;
+                else if (cmp > 0) hi = mid - 1;
+                else return mid;
+            }
+            return -(lo + 1);
+        }
+
+        private static int compare(long c1, long id1, long c2, long id2) {
+            int c = Long.compare(c1, c2);
+            return c != 0 ? c : Long.compare(id1, id2);
+        }
+    }
+}
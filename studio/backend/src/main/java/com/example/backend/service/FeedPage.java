@@ -0,0 +1,11 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Post;
+
+import java.util.List;
+
+/**
+ * One page of the keyset-paginated feed. {@code nextCursor} is null on the last page.
+ */
+public record FeedPage(List<Post> posts, String nextCursor) {
+}
@@ -0,0 +1,284 @@
+package com.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Generates resized variants of uploaded images on a small, bounded worker pool.
+ *
+ * Every accepted upload gets a {@code _thumb} and a {@code _feed} JPEG next to the original.
+ * The JDK has no WebP encoder, so variants are baseline JPEG, with transparency flattened onto
+ * white. The pool has a fixed number of threads and a fixed queue. When the queue is full the
+ * upload is still stored, but no variants are made, so a burst cannot take more CPU than
+ * the pool owns. Images larger than {@code uploads.images.max-pixels} are not decoded at all.
+ *
+ * Finished variants are recorded in memory (and found again by a scan of the uploads directory
+ * at startup), so building a DTO never has to stat the disk to learn whether they exist.
+ */
+@Service
+public class ImageProcessingService {
+    private static final Logger log = LoggerFactory.getLogger(ImageProcessingService.class);
+    public static final String THUMBNAIL_SUFFIX = "_thumb";
+    public static final String FEED_SUFFIX = "_feed";
+    private static final String VARIANT_EXTENSION = ".jpg";
+    private static final Set<String> PROCESSABLE = Set.of(".jpg", ".jpeg", ".png", ".bmp", ".gif");
+
+    private final Path uploadsRoot = Paths.get("uploads").toAbsolutePath().normalize();
+    private final ThreadPoolExecutor executor;
+    private final int thumbnailWidth;
+    private final int feedWidth;
+    private final float jpegQuality;
+    private final long maxPixels;
+    // Paths of existing variants relative to the uploads directory, e.g. ab/cd/<hash>_thumb.jpg
+    private final Set<String> variants = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong oversized = new AtomicLong();
+    private final AtomicLong processingNanos = new AtomicLong();
+
+    public ImageProcessingService(@Value("${uploads.images.workers:0}") int workers,
+                                  @Value("${uploads.images.queue-capacity:64}") int queueCapacity,
+                                  @Value("${uploads.images.thumbnail-width:320}") int thumbnailWidth,
+                                  @Value("${uploads.images.feed-width:1080}") int feedWidth,
+                                  @Value("${uploads.images.jpeg-quality:0.82}") float jpegQuality,
+                                  @Value("${uploads.images.max-pixels:40000000}") long maxPixels) {
+        int threads = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "image-worker-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.NORM_PRIORITY - 1);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.thumbnailWidth = thumbnailWidth;
+        this.feedWidth = feedWidth;
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+    }
+
+    /** Records the variants already on disk, on the worker pool so startup does not wait for it. */
+    @PostConstruct
+    void scanExistingVariants() {
+        executor.execute(() -> {
+            if (!Files.isDirectory(uploadsRoot)) return;
+            try (Stream<Path> files = Files.walk(uploadsRoot, 3)) {
+                files.filter(Files::isRegularFile)
+                        .map(f -> uploadsRoot.relativize(f).toString().replace('\\', '/'))
+                        .filter(ImageProcessingService::isVariantName)
+                        .forEach(variants::add);
+                log.info("Found {} existing image variants", variants.size());
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Could not scan {} for image variants; they are used again once regenerated", uploadsRoot, e);
+            }
+        });
+    }
+
+    /** Whether variants are generated for files with this name. */
+    public static boolean isProcessable(String fileName) {
+        return PROCESSABLE.contains(extension(fileName));
+    }
+
+    /** Path or URL of a variant: {@code a/b/name.png} becomes {@code a/b/name_thumb.jpg}. */
+    public static String variantName(String original, String suffix) {
+        int slash = original.lastIndexOf('/');
+        int dot = original.lastIndexOf('.');
+        String base = dot > slash ? original.substring(0, dot) : original;
+        return base + suffix + VARIANT_EXTENSION;
+    }
+
+    /**
+     * Queues variant generation for a stored upload. Returns false if the queue is full or the
+     * format is not supported; the original stays usable either way.
+     */
+    public boolean submit(Path original) {
+        if (!isProcessable(original.getFileName().toString())) return false;
+        try {
+            executor.execute(() -> process(original));
+            accepted.incrementAndGet();
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("Image queue full ({} waiting); skipping variants for {}", executor.getQueue().size(), original.getFileName());
+            return false;
+        }
+    }
+
+    /** Whether both variants of a stored original already exist (checked on disk; upload path only). */
+    public boolean hasVariants(Path original) {
+        String name = original.getFileName().toString();
+        Path thumb = original.resolveSibling(variantName(name, THUMBNAIL_SUFFIX));
+        Path feed = original.resolveSibling(variantName(name, FEED_SUFFIX));
+        if (!Files.exists(thumb) || !Files.exists(feed)) return false;
+        record(thumb);
+        record(feed);
+        return true;
+    }
+
+    /**
+     * Resolves the URL of a variant for an image URL served from /uploads/, or null if the
+     * image is not ours or the variant has not been generated (yet). A set lookup, no disk access.
+     */
+    public String variantUrl(String imageUrl, String suffix) {
+        if (imageUrl == null) return null;
+        int at = imageUrl.indexOf("/uploads/");
+        if (at < 0 || !isProcessable(imageUrl)) return null;
+        String relative = variantName(imageUrl.substring(at + "/uploads/".length()), suffix);
+        return variants.contains(relative) ? variantName(imageUrl, suffix) : null;
+    }
+
+    private void record(Path variant) {
+        Path normalized = variant.toAbsolutePath().normalize();
+        if (normalized.startsWith(uploadsRoot)) {
+            variants.add(uploadsRoot.relativize(normalized).toString().replace('\\', '/'));
+        }
+    }
+
+    private static boolean isVariantName(String relative) {
+        return relative.endsWith(THUMBNAIL_SUFFIX + VARIANT_EXTENSION) || relative.endsWith(FEED_SUFFIX + VARIANT_EXTENSION);
+    }
+
+    private void process(Path original) {
+        long started = System.nanoTime();
+        try {
+            BufferedImage source = decode(original);
+            if (source == null) return;
+            String name = original.getFileName().toString();
+            Path thumb = original.resolveSibling(variantName(name, THUMBNAIL_SUFFIX));
+            Path feed = original.resolveSibling(variantName(name, FEED_SUFFIX));
+            writeVariant(source, thumbnailWidth, thumb);
+            writeVariant(source, feedWidth, feed);
+            record(thumb);
+            record(feed);
+            completed.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("Failed to generate variants for {}", original.getFileName(), e);
+        } finally {
+            processingNanos.addAndGet(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Decodes the first image of the file, or returns null if no reader handles it or it has more
+     * than maxPixels pixels. The size comes from the header, before any pixel data is decoded, so
+     * a small file that declares a huge image (a decompression bomb) never gets its buffer allocated.
+     */
+    private BufferedImage decode(Path original) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                log.debug("No ImageIO reader for {}", original.getFileName());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    oversized.incrementAndGet();
+                    log.warn("Skipping variants for {}: {}x{} is over {} pixels", original.getFileName(),
+                            reader.getWidth(0), reader.getHeight(0), maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void writeVariant(BufferedImage source, int maxWidth, Path target) throws IOException {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        // Write to a temp file and move into place so readers never see a partial image
+        Path tmp = Files.createTempFile(target.getParent(), ".variant", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(scaled, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // Gone after a successful move; left over only when the write or the move failed
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public int queueDepth() { return executor.getQueue().size(); }
+    public int queueCapacity() { return executor.getQueue().size() + executor.getQueue().remainingCapacity(); }
+    public int activeWorkers() { return executor.getActiveCount(); }
+    public int workers() { return executor.getMaximumPoolSize(); }
+    public long acceptedCount() { return accepted.get(); }
+    public long rejectedCount() { return rejected.get(); }
+    public long completedCount() { return completed.get(); }
+    public long failedCount() { return failed.get(); }
+    public long oversizedCount() { return oversized.get(); }
+    public long processingNanos() { return processingNanos.get(); }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.backend.service;
+
+import com.example.backend.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Issues and verifies the HS256 access tokens handed out by {@link AuthService}.
+ *
+ * Verification (signature check, Base64 and JSON decoding) runs once per token; the resulting
+ * claims are cached under the SHA-256 of the token until the token expires, so repeat requests
+ * only pay for a digest and a map lookup. The role travels in the token, and older tokens
+ * without one are resolved through the profile cache once and then cached like the rest.
+ */
+@Service
+public class JwtService {
+    private final UserService userService;
+    private final Key jwtKey;
+    private final long jwtExpirationMs;
+    private final JwtParser parser;
+    private final Cache<String, AuthenticatedUser> verified;
+
+    public JwtService(UserService userService,
+                      @Value("${jwt.secret}") String jwtSecret,
+                      @Value("${jwt.expiration-ms}") long jwtExpirationMs,
+                      @Value("${jwt.verified-cache.max-size:10000}") long cacheSize) {
+        this.userService = userService;
+        this.jwtKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(jwtKey).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, AuthenticatedUser>() {
+                    @Override
+                    public long expireAfterCreate(String key, AuthenticatedUser user, long currentTime) {
+                        return Math.max(0, user.expiresAt().toEpochMilli() - System.currentTimeMillis()) * 1_000_000;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, AuthenticatedUser user, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, AuthenticatedUser user, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public String generateToken(User user, String role) {
+        Date now = new Date();
+        Date exp = new Date(now.getTime() + jwtExpirationMs);
+
+        return Jwts.builder()
+                .setSubject(user.getId().toString())
+                .claim("email", user.getEmail())
+                .claim("role", role)
+                .setIssuedAt(now)
+                .setExpiration(exp)
+                .signWith(jwtKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Returns the caller identified by the token.
+     *
+     * @throws IllegalArgumentException if the token is malformed, forged or expired
+     */
+    public AuthenticatedUser verify(String token) {
+        String key = digest(token);
+        AuthenticatedUser user = verified.getIfPresent(key);
+        if (user == null) {
+            user = parse(token);
+            verified.put(key, user);
+        }
+        if (!user.expiresAt().isAfter(Instant.now())) {
+            verified.invalidate(key);
+            throw new IllegalArgumentException("Token expired");
+        }
+        return user;
+    }
+
+    public CacheStats cacheStats() {
+        return verified.stats();
+    }
+
+    public long cacheSize() {
+        return verified.estimatedSize();
+    }
+
+    private AuthenticatedUser parse(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid token", e);
+        }
+        if (claims.getExpiration() == null) {
+            throw new IllegalArgumentException("Token has no expiry");
+        }
+        Long id = Long.valueOf(claims.getSubject());
+        String role = claims.get("role", String.class);
+        if (role == null) {
+            // Issued before roles were embedded in tokens
+            role = userService.getProfile(id).role();
+        }
+        return new AuthenticatedUser(id, claims.get("email", String.class), role, claims.getExpiration().toInstant());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
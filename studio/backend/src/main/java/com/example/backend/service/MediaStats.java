@@ -0,0 +1,32 @@
+package com.example.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counters for files served from /uploads/**. */
+@Component
+public class MediaStats {
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder partial = new LongAdder();
+    private final LongAdder sendfile = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+    private final LongAdder handlerNanos = new LongAdder();
+
+    public void record(int status, long bytes, boolean viaSendfile, long nanos) {
+        requests.increment();
+        if (status == 304) notModified.increment();
+        if (status == 206) partial.increment();
+        if (viaSendfile) sendfile.increment();
+        bytesServed.add(bytes);
+        handlerNanos.add(nanos);
+    }
+
+    public long requests() { return requests.sum(); }
+    public long notModified() { return notModified.sum(); }
+    public long partial() { return partial.sum(); }
+    public long sendfile() { return sendfile.sum(); }
+    public long bytesServed() { return bytesServed.sum(); }
+    public long handlerNanos() { return handlerNanos.sum(); }
+}
@@ -0,0 +1,148 @@
+package com.example.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * BCrypt hashing and verification for every password path, run on a small dedicated pool.
+ *
+ * Request threads hand the work to the pool and wait for it. At most {@code workers} hashes
+ * run at once and at most {@code queue-capacity} wait. Anything beyond that fails straight
+ * away with {@link PasswordHasherBusyException}, so a login storm is turned away at the door
+ * instead of tying up every Tomcat thread and stalling the feed.
+ */
+@Service
+public class PasswordHasher {
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final long retryAfterSeconds;
+
+    private final AtomicLong hashes = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong rehashed = new AtomicLong();
+    private final AtomicLong hashNanos = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+    public PasswordHasher(@Value("${auth.password.bcrypt-strength:10}") int strength,
+                          @Value("${auth.password.workers:0}") int workers,
+                          @Value("${auth.password.queue-capacity:32}") int queueCapacity,
+                          @Value("${auth.password.timeout-ms:5000}") long timeoutMs,
+                          @Value("${auth.password.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        int threads = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hasher-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String hash) {
+        if (rawPassword == null || hash == null) return false;
+        return run(() -> encoder.matches(rawPassword, hash));
+    }
+
+    /** Whether a stored hash was made with a different cost than the configured one. */
+    public boolean needsRehash(String hash) {
+        // BCrypt hashes look like $2a$10$<salt+digest>; the two digits are the cost
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') return false;
+        try {
+            return Integer.parseInt(hash.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /** Records that a login upgraded a stored hash to the configured cost. */
+    void recordRehash() {
+        rehashed.incrementAndGet();
+    }
+
+    private <T> T run(Callable<T> work) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                waitNanos.addAndGet(started - submitted);
+                try {
+                    return work.call();
+                } finally {
+                    long took = System.nanoTime() - started;
+                    hashes.incrementAndGet();
+                    hashNanos.addAndGet(took);
+                    maxHashNanos.accumulate(took);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("Password hashing queue full ({} waiting); rejecting request", executor.getQueue().size());
+            throw new PasswordHasherBusyException("Too many authentication requests, try again shortly", retryAfterSeconds);
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.incrementAndGet();
+            throw new PasswordHasherBusyException("Authentication timed out, try again shortly", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHasherBusyException("Authentication interrupted", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    public int strength() { return strength; }
+    public int queueDepth() { return executor.getQueue().size(); }
+    public int queueCapacity() { return executor.getQueue().size() + executor.getQueue().remainingCapacity(); }
+    public int activeWorkers() { return executor.getActiveCount(); }
+    public int workers() { return executor.getMaximumPoolSize(); }
+    public long hashCount() { return hashes.get(); }
+    public long rejectedCount() { return rejected.get(); }
+    public long timedOutCount() { return timedOut.get(); }
+    public long rehashedCount() { return rehashed.get(); }
+    public long hashNanos() { return hashNanos.get(); }
+    public long waitNanos() { return waitNanos.get(); }
+    public long maxHashNanos() { return maxHashNanos.get(); }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
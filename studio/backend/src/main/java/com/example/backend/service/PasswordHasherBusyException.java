@@ -0,0 +1,18 @@
+package com.example.backend.service;
+
+/**
+ * Thrown when the password hashing queue is full or a hash did not finish in time.
+ * Controllers answer with 503 and a Retry-After header.
+ */
+public class PasswordHasherBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public PasswordHasherBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
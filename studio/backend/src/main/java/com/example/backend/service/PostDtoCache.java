@@ -0,0 +1,120 @@
+package com.example.backend.service;
+
+import com.example.backend.web.dto.CommentResponseDto;
+import com.example.backend.web.dto.PostResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of fully assembled post DTOs (post plus comments) keyed by post id.
+ *
+ * Caffeine's W-TinyLFU policy keeps the frequently read posts resident, and entries are
+ * weighed by their approximate heap size so a few posts with long threads cannot crowd out
+ * everything else. Cached DTOs hold the persisted like/dislike counts only; callers merge
+ * unflushed reactions on the way out and must never mutate a cached instance.
+ *
+ * Loads and invalidations of the same id are serialised by the cache, so an invalidation
+ * issued after a write always removes a value that was loaded before the write committed.
+ */
+@Component
+public class PostDtoCache {
+    private final Cache<Long, PostResponseDto> cache;
+    // Bumped by every invalidation, so bulk warm-up can tell whether it raced with a write
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PostDtoCache(@Value("${posts.cache.max-weight-bytes:67108864}") long maxWeightBytes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long id, PostResponseDto dto) -> estimateBytes(dto))
+                .recordStats()
+                .build();
+    }
+
+    /** Returns the cached DTO, loading it on a miss. A loader returning null is not cached. */
+    public PostResponseDto get(Long postId, Function<Long, PostResponseDto> loader) {
+        return cache.get(postId, loader);
+    }
+
+    /** Returns the cached DTO without loading, or null. */
+    public PostResponseDto getIfPresent(Long postId) {
+        return cache.getIfPresent(postId);
+    }
+
+    /** Whether the id is cached; unlike {@link #getIfPresent} this does not count as a hit or miss. */
+    public boolean contains(Long postId) {
+        return cache.asMap().containsKey(postId);
+    }
+
+    public void invalidate(Long postId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(postId);
+    }
+
+    public void invalidateAll(Collection<Long> postIds) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll(postIds);
+    }
+
+    public long invalidationCount() {
+        return invalidations.get();
+    }
+
+    /**
+     * Adds DTOs loaded outside {@link #get}, unless any invalidation happened since
+     * {@code seenInvalidations} was read (before loading); then the batch may be stale and
+     * is dropped. Returns whether the DTOs were kept.
+     */
+    public boolean putAllIfUnchanged(Map<Long, PostResponseDto> dtos, long seenInvalidations) {
+        dtos.forEach(cache.asMap()::putIfAbsent);
+        if (invalidations.get() == seenInvalidations) return true;
+        cache.invalidateAll(dtos.keySet());
+        return false;
+    }
+
+    /** Ids of up to {@code limit} entries the eviction policy considers most valuable. */
+    public List<Long> hottest(int limit) {
+        return cache.policy().eviction()
+                .map(e -> List.copyOf(e.hottest(limit).keySet()))
+                .orElse(List.of());
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public long weightedSize() {
+        return cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    /** Rough heap footprint: object headers plus two bytes per string character. */
+    private static int estimateBytes(PostResponseDto dto) {
+        long bytes = 256 + chars(dto.title) + chars(dto.content) + chars(dto.topic) + chars(dto.imageUrl);
+        if (dto.author != null) {
+            bytes += chars(dto.author.name) + chars(dto.author.email) + chars(dto.author.avatarUrl);
+        }
+        if (dto.comments != null) {
+            for (CommentResponseDto c : dto.comments) {
+                bytes += 160 + chars(c.content);
+                if (c.author != null) bytes += chars(c.author.name) + chars(c.author.email);
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long chars(String s) {
+        return s == null ? 0 : 2L * s.length();
+    }
+}
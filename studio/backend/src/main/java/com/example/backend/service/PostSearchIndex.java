@@ -0,0 +1,440 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Post;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over post title, topic and content, ranked with BM25.
+ *
+ * Every indexed post gets a dense int document number. Each term maps to a posting list of
+ * parallel {@code int[]} arrays (document numbers in ascending order and term frequencies), so
+ * a query is a k-way merge over a handful of primitive arrays feeding a bounded top-K heap.
+ * Deletes, and re-indexing a changed post, only set a tombstone bit on the old document; the
+ * arrays are rebuilt once tombstones outnumber live documents. Tombstoned documents are left
+ * out of the document frequencies behind idf. The index is filled by
+ * {@link DerivedStateBootstrap} at startup, from a snapshot or the database, and kept current
+ * by {@link PostService}.
+ */
+@Component
+public class PostSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    // BM25 parameters (the usual defaults)
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // A title hit counts as three content hits, a topic hit as two
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TOPIC_WEIGHT = 2;
+    // Compaction is not worth it below this many tombstones
+    private static final int MIN_COMPACTION = 1000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, Postings> terms = new HashMap<>();
+    private Map<Long, Integer> docByPost = new HashMap<>();
+    private long[] postIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private String[] statuses = new String[1024];
+    // Topic and author email per document, for the feed filters that can narrow a search
+    private String[] topics = new String[1024];
+    private String[] authors = new String[1024];
+    private BitSet deleted = new BitSet();
+    private int docCount;
+    private int liveDocs;
+    // Set bits in deleted, kept as a count because index() checks it on every call
+    private int tombstones;
+    private long totalLength;
+    private volatile boolean ready;
+
+    /** Called once the startup load is complete; searches fall back to the database until then. */
+    public void markReady() {
+        ready = true;
+        log.info("Search index ready: {} posts, {} terms", liveDocs, terms.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Adds a post, replacing any previously indexed version of it. */
+    public void index(Post p) {
+        Map<String, Integer> tf = new HashMap<>();
+        int length = tokenize(p.getTitle(), TITLE_WEIGHT, tf)
+                + tokenize(p.getTopic(), TOPIC_WEIGHT, tf)
+                + tokenize(p.getContent(), 1, tf);
+        lock.writeLock().lock();
+        try {
+            removeLocked(p.getId());
+            int doc = docCount++;
+            if (doc == postIds.length) {
+                int cap = postIds.length * 2;
+                postIds = Arrays.copyOf(postIds, cap);
+                docLengths = Arrays.copyOf(docLengths, cap);
+                statuses = Arrays.copyOf(statuses, cap);
+                topics = Arrays.copyOf(topics, cap);
+                authors = Arrays.copyOf(authors, cap);
+            }
+            postIds[doc] = p.getId();
+            docLengths[doc] = length;
+            statuses[doc] = p.getStatus();
+            topics[doc] = p.getTopic();
+            authors[doc] = p.getAuthorEmail();
+            docByPost.put(p.getId(), doc);
+            liveDocs++;
+            totalLength += length;
+            for (Map.Entry<String, Integer> e : tf.entrySet()) {
+                terms.computeIfAbsent(e.getKey(), k -> new Postings()).add(doc, e.getValue());
+            }
+            // Edits tombstone the previous version just like deletes do
+            compactIfNeededLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStatus(Long postId, String status) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByPost.get(postId);
+            if (doc != null) statuses[doc] = status;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+            compactIfNeededLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best matching posts with the given status, best first.
+     * A post matches if it contains at least one query term. {@code topic} and {@code author}
+     * (either may be null) narrow the matches before the limit is applied.
+     */
+    public List<Long> search(String query, String status, String topic, String author, int limit) {
+        List<String> queryTerms = distinctTokens(query);
+        if (queryTerms.isEmpty() || limit <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            float[] idfs = new float[queryTerms.size()];
+            for (String t : queryTerms) {
+                Postings pl = terms.get(t);
+                if (pl == null) continue;
+                // BM25 idf over live documents, floored at a small positive value for very common terms
+                int df = liveCount(pl);
+                float idf = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+                idfs[lists.size()] = Math.max(idf, 0.01f);
+                lists.add(pl);
+            }
+            if (lists.isEmpty()) return List.of();
+
+            float avgLength = liveDocs == 0 ? 1 : (float) totalLength / liveDocs;
+            int n = lists.size();
+            int[] cursor = new int[n];
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1);
+            while (true) {
+                // Next document present in any posting list (lists are sorted by doc number)
+                int doc = Integer.MAX_VALUE;
+                for (int i = 0; i < n; i++) {
+                    Postings pl = lists.get(i);
+                    if (cursor[i] < pl.size && pl.docs[cursor[i]] < doc) doc = pl.docs[cursor[i]];
+                }
+                if (doc == Integer.MAX_VALUE) break;
+
+                float score = 0;
+                float norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                for (int i = 0; i < n; i++) {
+                    Postings pl = lists.get(i);
+                    if (cursor[i] < pl.size && pl.docs[cursor[i]] == doc) {
+                        int f = pl.freqs[cursor[i]];
+                        score += idfs[i] * (f * (K1 + 1)) / (f + norm);
+                        cursor[i]++;
+                    }
+                }
+                if (deleted.get(doc) || (status != null && !status.equals(statuses[doc]))) continue;
+                if (topic != null && !topic.equals(topics[doc])) continue;
+                if (author != null && !author.equals(authors[doc])) continue;
+                if (top.size() < limit) {
+                    top.add(new Hit(doc, score));
+                } else if (score > top.peek().score) {
+                    top.poll();
+                    top.add(new Hit(doc, score));
+                }
+            }
+
+            Long[] ranked = new Long[top.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = postIds[top.poll().doc];
+            }
+            return Arrays.asList(ranked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Tombstoned documents not yet compacted away. */
+    int tombstones() {
+        lock.readLock().lock();
+        try {
+            return tombstones;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Drops every document. */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            terms = new HashMap<>();
+            docByPost = new HashMap<>();
+            postIds = new long[1024];
+            docLengths = new int[1024];
+            statuses = new String[1024];
+            topics = new String[1024];
+            authors = new String[1024];
+            deleted = new BitSet();
+            tombstones = 0;
+            docCount = 0;
+            liveDocs = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Writes the live documents and their postings, renumbered densely. */
+    void writeTo(SnapshotWriter out) {
+        lock.readLock().lock();
+        try {
+            int[] remap = new int[docCount];
+            int live = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                remap[doc] = deleted.get(doc) ? -1 : live++;
+            }
+            out.putInt(live);
+            out.putLong(totalLength);
+            for (int doc = 0; doc < docCount; doc++) {
+                if (remap[doc] < 0) continue;
+                out.putLong(postIds[doc]);
+                out.putInt(docLengths[doc]);
+                out.putString(statuses[doc]);
+                out.putString(topics[doc]);
+                out.putString(authors[doc]);
+            }
+            out.putInt(terms.size());
+            for (Map.Entry<String, Postings> e : terms.entrySet()) {
+                Postings pl = e.getValue();
+                int n = 0;
+                for (int i = 0; i < pl.size; i++) {
+                    if (remap[pl.docs[i]] >= 0) n++;
+                }
+                out.putString(e.getKey());
+                out.putInt(n);
+                for (int i = 0; i < pl.size; i++) {
+                    int doc = remap[pl.docs[i]];
+                    if (doc < 0) continue;
+                    out.putInt(doc);
+                    out.putInt(pl.freqs[i]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Replaces the whole index with one written by {@link #writeTo}. */
+    void readFrom(SnapshotReader in) {
+        int live = in.getInt();
+        long length = in.getLong();
+        int cap = Math.max(1024, live);
+        long[] ids = new long[cap];
+        int[] lengths = new int[cap];
+        String[] docStatuses = new String[cap];
+        String[] docTopics = new String[cap];
+        String[] docAuthors = new String[cap];
+        Map<Long, Integer> byPost = new HashMap<>(live * 2);
+        for (int doc = 0; doc < live; doc++) {
+            ids[doc] = in.getLong();
+            lengths[doc] = in.getInt();
+            docStatuses[doc] = in.getString();
+            docTopics[doc] = in.getString();
+            docAuthors[doc] = in.getString();
+            byPost.put(ids[doc], doc);
+        }
+        int termCount = in.getInt();
+        Map<String, Postings> loaded = new HashMap<>(termCount * 2);
+        for (int t = 0; t < termCount; t++) {
+            String term = in.getString();
+            int n = in.getInt();
+            Postings pl = new Postings(Math.max(n, 1));
+            for (int i = 0; i < n; i++) {
+                pl.add(in.getInt(), in.getInt());
+            }
+            if (n > 0) loaded.put(term, pl);
+        }
+        lock.writeLock().lock();
+        try {
+            terms = loaded;
+            docByPost = byPost;
+            postIds = ids;
+            docLengths = lengths;
+            statuses = docStatuses;
+            topics = docTopics;
+            authors = docAuthors;
+            deleted = new BitSet();
+            tombstones = 0;
+            docCount = live;
+            liveDocs = live;
+            totalLength = length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long postId) {
+        Integer doc = docByPost.remove(postId);
+        if (doc == null) return;
+        deleted.set(doc);
+        tombstones++;
+        liveDocs--;
+        totalLength -= docLengths[doc];
+    }
+
+    // Documents in the posting list that are not tombstoned
+    private int liveCount(Postings pl) {
+        if (tombstones == 0) return pl.size;
+        int live = 0;
+        for (int i = 0; i < pl.size; i++) {
+            if (!deleted.get(pl.docs[i])) live++;
+        }
+        return live;
+    }
+
+    private void compactIfNeededLocked() {
+        if (tombstones > Math.max(liveDocs, MIN_COMPACTION)) {
+            compactLocked();
+        }
+    }
+
+    /** Renumbers live documents densely and drops tombstoned postings. */
+    private void compactLocked() {
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = next;
+            postIds[next] = postIds[doc];
+            docLengths[next] = docLengths[doc];
+            statuses[next] = statuses[doc];
+            topics[next] = topics[doc];
+            authors[next] = authors[doc];
+            next++;
+        }
+        Map<String, Postings> compacted = new HashMap<>();
+        for (Map.Entry<String, Postings> e : terms.entrySet()) {
+            Postings old = e.getValue();
+            Postings pl = new Postings();
+            for (int i = 0; i < old.size; i++) {
+                int doc = remap[old.docs[i]];
+                if (doc >= 0) pl.add(doc, old.freqs[i]);
+            }
+            if (pl.size > 0) compacted.put(e.getKey(), pl);
+        }
+        Map<Long, Integer> byPost = new HashMap<>();
+        for (int doc = 0; doc < next; doc++) byPost.put(postIds[doc], doc);
+        Arrays.fill(statuses, next, docCount, null);
+        Arrays.fill(topics, next, docCount, null);
+        Arrays.fill(authors, next, docCount, null);
+        terms = compacted;
+        docByPost = byPost;
+        deleted = new BitSet();
+        tombstones = 0;
+        docCount = next;
+        log.debug("Search index compacted to {} documents", next);
+    }
+
+    private static List<String> distinctTokens(String text) {
+        Map<String, Integer> tf = new LinkedHashMap<>();
+        tokenize(text, 1, tf);
+        return new ArrayList<>(tf.keySet());
+    }
+
+    /**
+     * Splits text on anything that is not a letter or digit, lowercases, and adds
+     * {@code weight} to each token's count. Returns the weighted token count.
+     */
+    static int tokenize(String text, int weight, Map<String, Integer> tf) {
+        if (text == null || text.isEmpty()) return 0;
+        int count = 0;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tf.merge(text.substring(start, i).toLowerCase(Locale.ROOT), weight, Integer::sum);
+                count += weight;
+                start = -1;
+            }
+        }
+        return count;
+    }
+
+    private static final class Postings {
+        int[] docs;
+        int[] freqs;
+        int size;
+
+        Postings() {
+            this(4);
+        }
+
+        Postings(int capacity) {
+            docs = new int[capacity];
+            freqs = new int[capacity];
+        }
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    private record Hit(int doc, float score) implements Comparable<Hit> {
+        @Override
+        public int compareTo(Hit o) {
+            return Float.compare(score, o.score);
+        }
+    }
+}
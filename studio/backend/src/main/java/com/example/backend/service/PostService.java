@@ -1,52 +1,467 @@
 package com.example.backend.service;
 
+import com.example.backend.config.ReadRouting;
 import com.example.backend.model.Comment;
 import com.example.backend.model.Post;
+import com.example.backend.model.PostDeletion;
+import com.example.backend.repository.CommentCountView;
 import com.example.backend.repository.CommentRepository;
 import com.example.backend.repository.PostRepository;
+import com.example.backend.repository.PostStatusView;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.example.backend.service.Transactions.afterCommit;
 
 @Service
 public class PostService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_BATCH_SIZE = 100;
+    /** Comments embedded in each post DTO; the rest are paged through {@link #comments}. */
+    public static final int COMMENT_PREVIEW_SIZE = 3;
+    /** Most posts a single bulk moderation call may touch. */
+    public static final int MAX_BULK_SIZE = 10_000;
+    // Ids per IN (...) list; keeps statements well under driver parameter limits
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     private final PostRepository repo;
     private final CommentRepository commentRepo;
+    private final ReactionCounters reactions;
+    private final PostSearchIndex searchIndex;
+    private final PostDtoCache dtoCache;
+    private final EntityManager entityManager;
+    private final ImageProcessingService images;
+    private final TrendingRanker trending;
+    private final FeedIndex feedIndex;
+    // Changes whenever any post is created, modified or deleted. Seeded with the start time so
+    // ETags issued before a restart are not mistaken for current ones.
+    private final AtomicLong feedVersion = new AtomicLong(System.currentTimeMillis());
 
-    public PostService(PostRepository repo, CommentRepository commentRepo) {
+    public PostService(PostRepository repo, CommentRepository commentRepo, ReactionCounters reactions,
+                       PostSearchIndex searchIndex, PostDtoCache dtoCache, EntityManager entityManager,
+                       ImageProcessingService images, TrendingRanker trending, FeedIndex feedIndex) {
         this.repo = repo;
         this.commentRepo = commentRepo;
+        this.reactions = reactions;
+        this.searchIndex = searchIndex;
+        this.dtoCache = dtoCache;
+        this.entityManager = entityManager;
+        this.images = images;
+        this.trending = trending;
+        this.feedIndex = feedIndex;
+    }
+
+    public Post create(Post p) {
+        if (p.getUpdatedAt() == null) p.setUpdatedAt(p.getCreatedAt());
+        Post saved = repo.save(p);
+        feedVersion.incrementAndGet();
+        searchIndex.index(saved);
+        trending.add(saved, 0);
+        feedIndex.index(saved);
+        return saved;
     }
 
-    public Post create(Post p) { return repo.save(p); }
+    /**
+     * Validators for a post detail response, taken from the cached DTO or from the version
+     * columns alone; content and comments are never loaded. Compute this before building the
+     * response body so a concurrent write can only make the ETag older than the body, never newer.
+     */
+    public Optional<EntityTag> postTag(Long id) {
+        long version;
+        Instant updatedAt;
+        var cached = dtoCache.getIfPresent(id);
+        if (cached != null) {
+            version = cached.version;
+            updatedAt = cached.updatedAt;
+        } else {
+            var row = repo.findVersionById(id);
+            if (row.isEmpty()) return Optional.empty();
+            version = row.get().getVersion() == null ? 0 : row.get().getVersion();
+            updatedAt = row.get().getUpdatedAt() != null ? row.get().getUpdatedAt() : row.get().getCreatedAt();
+        }
+        String etag = "\"p" + id + "-" + version + "-" + reactions.pendingLikes(id) + "-" + reactions.pendingDislikes(id) + "\"";
+        return Optional.of(new EntityTag(etag, updatedAt));
+    }
+
+    /**
+     * ETag for a feed/search response with the given query parameters. It changes whenever any
+     * post changes or a reaction is recorded; same rule as {@link #postTag} about ordering.
+     */
+    public EntityTag feedTag(Object... params) {
+        String etag = "\"f" + feedVersion.get() + "-" + reactions.sequence() + "-"
+                + Integer.toHexString(Objects.hash(params)) + "\"";
+        return new EntityTag(etag, null);
+    }
+
+    /** Loads a post that is about to be changed or commented on; read from the primary, never a lagging replica. */
+    public Optional<Post> get(Long id) { return ReadRouting.onPrimary(() -> repo.findById(id)); }
+
+    @Transactional(readOnly = true)
+    public boolean exists(Long id) { return repo.existsById(id); }
+
+    /**
+     * Post detail DTO served from {@link PostDtoCache}; only a miss touches the database.
+     * Unflushed reactions are merged into a copy, never into the cached instance. Misses read the
+     * primary: a DTO loaded from a lagging replica would stay cached until the post changes again.
+     */
+    public Optional<com.example.backend.web.dto.PostResponseDto> getDto(Long id) {
+        var cached = dtoCache.get(id, key -> ReadRouting.onPrimary(
+                () -> repo.findById(key).map(p -> assemble(List.of(p)).get(0)).orElse(null)));
+        if (cached == null) return Optional.empty();
+        return Optional.of(withPendingReactions(new com.example.backend.web.dto.PostResponseDto(cached)));
+    }
+
+    /**
+     * Loads the DTOs of the given posts into {@link PostDtoCache} in batches, skipping ones
+     * already cached. Used after a restart to bring back the previously hot posts.
+     */
+    public int warmCache(List<Long> ids) {
+        int loaded = 0;
+        for (int i = 0; i < ids.size(); i += EXPORT_BATCH_SIZE) {
+            List<Long> batch = ids.subList(i, Math.min(ids.size(), i + EXPORT_BATCH_SIZE)).stream()
+                    .filter(id -> !dtoCache.contains(id))
+                    .toList();
+            if (batch.isEmpty()) continue;
+            long seen = dtoCache.invalidationCount();
+            Map<Long, com.example.backend.web.dto.PostResponseDto> dtos = new HashMap<>();
+            for (var dto : ReadRouting.onPrimary(() -> assemble(repo.findAllById(batch)))) dtos.put(Long.valueOf(dto.id), dto);
+            if (dtoCache.putAllIfUnchanged(dtos, seen)) loaded += dtos.size();
+        }
+        return loaded;
+    }
 
-    public Optional<Post> get(Long id) { return repo.findById(id); }
+    /**
+     * Full-text search over title, topic and content, best match first, optionally narrowed to
+     * a topic and/or author email before the limit. Served from {@link PostSearchIndex}; only
+     * while the index is still loading at startup does it fall back to a title LIKE query.
+     */
+    @Transactional(readOnly = true)
+    public List<Post> search(String q, String status, String topic, String author, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (!searchIndex.isReady()) {
+            return repo.findByTitleContainingIgnoreCase(q).stream()
+                    .filter(p -> status.equals(p.getStatus()))
+                    .filter(p -> topic == null || topic.equals(p.getTopic()))
+                    .filter(p -> author == null || author.equals(p.getAuthorEmail()))
+                    .limit(size)
+                    .toList();
+        }
+        return inOrder(searchIndex.search(q, status, topic, author, size));
+    }
 
-    public List<Post> search(String q) { return repo.findByTitleContainingIgnoreCase(q); }
+    // Loads posts by id, keeping the order of ids and skipping any that no longer exist
+    private List<Post> inOrder(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Post> byId = new HashMap<>();
+        for (Post p : repo.findAllById(ids)) byId.put(p.getId(), p);
+        List<Post> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Post p = byId.get(id);
+            if (p != null) ranked.add(p);
+        }
+        return ranked;
+    }
 
     public List<Post> listAll() { return repo.findAll(); }
 
+    /**
+     * Highest scoring posts with the given status, best first, from {@link TrendingRanker}.
+     * Only the returned posts are read from the database, by primary key. Until the ranking
+     * is built at startup this is the newest-first feed.
+     */
+    @Transactional(readOnly = true)
+    public List<Post> trending(String status, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (!trending.isReady()) {
+            return feed(status, null, null, null, size).posts();
+        }
+        return inOrder(trending.top(status, size));
+    }
+
+    /**
+     * Returns one page of posts with the given status, newest first, optionally narrowed to a
+     * topic and/or author email. Pass the {@code nextCursor} of the previous page to continue.
+     * Topic and author pages come from {@link FeedIndex} and read only the page's posts by
+     * primary key; the unfiltered feed (and filtered ones while the index loads) is ordered and
+     * filtered by the database.
+     */
+    @Transactional(readOnly = true)
+    public FeedPage feed(String status, String topic, String author, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<Post> rows;
+        if ((topic != null || author != null) && feedIndex.isReady()) {
+            KeysetCursor after = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+            List<KeysetCursor> keys = feedIndex.page(status, topic, author, after, size + 1);
+            // The cursor comes from the index, not the loaded rows: a post deleted since it was
+            // indexed is skipped by inOrder but must not end the feed early
+            boolean more = keys.size() > size;
+            List<KeysetCursor> shown = more ? keys.subList(0, size) : keys;
+            List<Post> posts = inOrder(shown.stream().map(KeysetCursor::id).toList());
+            return new FeedPage(posts, more ? shown.get(size - 1).encode() : null);
+        } else if (cursor == null || cursor.isEmpty()) {
+            rows = repo.findFeedFirstPage(status, topic, author, page);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = repo.findFeedAfter(status, topic, author, after.createdAt(), after.id(), page);
+        }
+        if (rows.size() <= size) {
+            return new FeedPage(rows, null);
+        }
+        List<Post> posts = rows.subList(0, size);
+        Post last = posts.get(size - 1);
+        return new FeedPage(posts, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    /**
+     * Streams every post with the given status (all posts if null) in id order, handing DTOs to
+     * {@code sink} in small batches. Posts are scrolled from the database and detached after
+     * each batch, so memory use does not depend on how many posts are exported.
+     */
+    @Transactional(readOnly = true)
+    public void export(String status, Consumer<List<com.example.backend.web.dto.PostResponseDto>> sink) {
+        try (Stream<Post> posts = repo.streamByStatus(status)) {
+            List<Post> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+            var it = posts.iterator();
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() == EXPORT_BATCH_SIZE || !it.hasNext()) {
+                    sink.accept(toPostDtos(batch));
+                    batch.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns one page of a post's comments, oldest first. Pass the {@code nextCursor} of the
+     * previous page to continue.
+     */
+    @Transactional(readOnly = true)
+    public CommentPage comments(Long postId, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<Comment> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = commentRepo.findPageFirst(postId, page);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = commentRepo.findPageAfter(postId, after.createdAt(), after.id(), page);
+        }
+        List<Comment> comments = rows.size() <= size ? rows : rows.subList(0, size);
+        String next = null;
+        if (rows.size() > size) {
+            Comment last = comments.get(size - 1);
+            next = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CommentPage(comments.stream().map(this::toCommentDto).toList(), next);
+    }
+
+    /**
+     * Saves the comment and bumps the post's version in one transaction; caches, the feed version
+     * and the trending score follow once it commits, so no reader can cache the post in between.
+     */
+    @Transactional
     public Comment addCommentToPost(Post post, String authorName, String authorEmail, String content) {
         Comment c = new Comment();
         c.setPost(post);
         c.setAuthorName(authorName);
         c.setAuthorEmail(authorEmail);
         c.setContent(content);
-        return commentRepo.save(c);
+        Comment saved = commentRepo.save(c);
+        repo.touch(post.getId(), Instant.now());
+        afterCommit(() -> {
+            feedVersion.incrementAndGet();
+            dtoCache.invalidate(post.getId());
+            trending.comment(post.getId());
+        });
+        return saved;
     }
 
+    // One transaction, so the save flushes the loaded post instead of selecting it again to merge
+    @Transactional
     public java.util.Optional<Post> updateStatus(Long id, String status) {
         var opt = repo.findById(id);
         opt.ifPresent(p -> {
             p.setStatus(status);
+            p.touch();
             repo.save(p);
+            afterCommit(() -> {
+                feedVersion.incrementAndGet();
+                dtoCache.invalidate(id);
+                searchIndex.updateStatus(id, status);
+                trending.updateStatus(id, status);
+                feedIndex.updateStatus(id, status);
+            });
         });
         return opt;
     }
 
+    /** Records a like and returns the updated DTO, or empty if the post does not exist. */
+    public Optional<com.example.backend.web.dto.PostResponseDto> like(Long id) {
+        if (getDto(id).isEmpty()) return Optional.empty();
+        reactions.like(id);
+        trending.like(id);
+        return getDto(id);
+    }
+
+    public Optional<com.example.backend.web.dto.PostResponseDto> dislike(Long id) {
+        if (getDto(id).isEmpty()) return Optional.empty();
+        reactions.dislike(id);
+        trending.dislike(id);
+        return getDto(id);
+    }
+
+    /**
+     * Resolves the posts selected by a bulk request: either an explicit id list (kept in request
+     * order, duplicates dropped) or a status/topic/author filter.
+     *
+     * @throws IllegalArgumentException if neither or both are given, or more than
+     *                                  {@link #MAX_BULK_SIZE} posts would be affected
+     */
+    public List<Long> resolveBulkIds(com.example.backend.web.dto.BulkPostRequest req) {
+        boolean hasIds = req.ids != null && !req.ids.isEmpty();
+        if (hasIds == (req.filter != null)) {
+            throw new IllegalArgumentException("Give either ids or filter");
+        }
+        List<Long> ids;
+        if (hasIds) {
+            ids = req.ids.stream().filter(Objects::nonNull).distinct().toList();
+        } else {
+            if (req.filter.status == null || req.filter.status.isEmpty()) {
+                throw new IllegalArgumentException("filter.status is required");
+            }
+            String topic = req.filter.topic == null || req.filter.topic.isEmpty() ? null : req.filter.topic;
+            String author = req.filter.author == null || req.filter.author.isEmpty() ? null : req.filter.author;
+            ids = repo.findIdsByFilter(req.filter.status, topic, author, PageRequest.of(0, MAX_BULK_SIZE + 1));
+        }
+        if (ids.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " posts per request");
+        }
+        return ids;
+    }
+
+    /**
+     * Sets the status of many posts in one transaction with one UPDATE per
+     * {@value #BULK_CHUNK_SIZE} ids, without loading the posts. Posts already in that status
+     * are left alone and reported as unchanged. In-memory indexes and caches are updated once
+     * the transaction commits.
+     */
+    @Transactional
+    public com.example.backend.web.dto.BulkResultDto bulkUpdateStatus(List<Long> ids, String status) {
+        Map<Long, String> current = currentStatuses(ids);
+        List<Long> changed = ids.stream().filter(id -> current.containsKey(id) && !status.equals(current.get(id))).toList();
+        Instant now = Instant.now();
+        for (List<Long> chunk : chunks(changed)) {
+            repo.updateStatusByIdIn(chunk, status, now);
+        }
+        afterCommit(() -> {
+            changed.forEach(id -> {
+                searchIndex.updateStatus(id, status);
+                trending.updateStatus(id, status);
+                feedIndex.updateStatus(id, status);
+            });
+            dtoCache.invalidateAll(changed);
+            feedVersion.incrementAndGet();
+        });
+        return bulkResult(ids, current, id -> status.equals(current.get(id)) ? "unchanged" : "updated");
+    }
+
+    /**
+     * Deletes many posts and their comments in one transaction, a chunk of ids per statement.
+     * Caches, the search index and unflushed reactions are cleared once the transaction commits.
+     */
+    @Transactional
+    public com.example.backend.web.dto.BulkResultDto bulkDelete(List<Long> ids) {
+        Map<Long, String> current = currentStatuses(ids);
+        List<Long> existing = ids.stream().filter(current::containsKey).toList();
+        Instant now = Instant.now();
+        for (List<Long> chunk : chunks(existing)) {
+            commentRepo.deleteByPostIdIn(chunk);
+            repo.deleteByIdIn(chunk);
+            chunk.forEach(id -> entityManager.persist(new PostDeletion(id, now)));
+        }
+        afterCommit(() -> {
+            existing.forEach(id -> {
+                reactions.discard(id);
+                searchIndex.remove(id);
+                trending.remove(id);
+                feedIndex.remove(id);
+            });
+            dtoCache.invalidateAll(existing);
+            feedVersion.incrementAndGet();
+        });
+        return bulkResult(ids, current, id -> "deleted");
+    }
+
+    private Map<Long, String> currentStatuses(List<Long> ids) {
+        Map<Long, String> statuses = new HashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            for (PostStatusView row : repo.findStatusByIdIn(chunk)) {
+                statuses.put(row.getId(), row.getStatus());
+            }
+        }
+        return statuses;
+    }
+
+    private static com.example.backend.web.dto.BulkResultDto bulkResult(List<Long> ids, Map<Long, String> existing,
+                                                                        Function<Long, String> outcomeOf) {
+        var result = new com.example.backend.web.dto.BulkResultDto();
+        result.requested = ids.size();
+        result.results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            String outcome = existing.containsKey(id) ? outcomeOf.apply(id) : "not_found";
+            switch (outcome) {
+                case "not_found" -> result.notFound++;
+                case "unchanged" -> result.unchanged++;
+                default -> result.changed++;
+            }
+            result.results.add(new com.example.backend.web.dto.BulkResultDto.Outcome(String.valueOf(id), outcome));
+        }
+        return result;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += BULK_CHUNK_SIZE) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + BULK_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    @Transactional
     public void delete(Long id) {
-        repo.deleteById(id);
+        // Comments reference the post, so they have to go first
+        commentRepo.deleteByPostIdIn(List.of(id));
+        if (repo.deleteByIdIn(List.of(id)) > 0) {
+            // Tombstone for the snapshot catch-up at the next startup
+            entityManager.persist(new PostDeletion(id, Instant.now()));
+        }
+        afterCommit(() -> {
+            feedVersion.incrementAndGet();
+            dtoCache.invalidate(id);
+            reactions.discard(id);
+            searchIndex.remove(id);
+            trending.remove(id);
+            feedIndex.remove(id);
+        });
     }
 
     // Mapping helpers for API DTOs
@@ -59,7 +474,47 @@ public class PostService {
         return dto;
     }
 
+    @Transactional(readOnly = true)
     public com.example.backend.web.dto.PostResponseDto toPostDto(Post p) {
+        return toPostDtos(List.of(p)).get(0);
+    }
+
+    /**
+     * Maps a page of posts to DTOs with two queries for the whole page: one for comment counts
+     * and one for the first {@link #COMMENT_PREVIEW_SIZE} comments of each post. The result
+     * keeps the order of {@code posts}.
+     */
+    @Transactional(readOnly = true)
+    public List<com.example.backend.web.dto.PostResponseDto> toPostDtos(List<Post> posts) {
+        var dtos = assemble(posts);
+        dtos.forEach(this::withPendingReactions);
+        return dtos;
+    }
+
+    // Builds DTOs carrying the persisted like/dislike counts only
+    private List<com.example.backend.web.dto.PostResponseDto> assemble(List<Post> posts) {
+        if (posts.isEmpty()) return List.of();
+        List<Long> ids = posts.stream().map(Post::getId).toList();
+        Map<Long, Long> counts = new HashMap<>();
+        for (CommentCountView row : commentRepo.countByPostIds(ids)) {
+            counts.put(row.getPostId(), row.getTotal());
+        }
+        Map<Long, List<com.example.backend.web.dto.CommentResponseDto>> commentsByPost = new HashMap<>();
+        if (!counts.isEmpty()) {
+            for (Comment c : commentRepo.findPreviews(counts.keySet(), COMMENT_PREVIEW_SIZE)) {
+                commentsByPost.computeIfAbsent(c.getPost().getId(), k -> new ArrayList<>()).add(toCommentDto(c));
+            }
+        }
+        List<com.example.backend.web.dto.PostResponseDto> dtos = new ArrayList<>(posts.size());
+        for (Post p : posts) {
+            var dto = toPostDto(p, commentsByPost.getOrDefault(p.getId(), List.of()));
+            dto.commentCount = counts.getOrDefault(p.getId(), 0L);
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    private com.example.backend.web.dto.PostResponseDto toPostDto(Post p, List<com.example.backend.web.dto.CommentResponseDto> comments) {
         com.example.backend.web.dto.PostResponseDto dto = new com.example.backend.web.dto.PostResponseDto();
         dto.id = String.valueOf(p.getId());
         dto.title = p.getTitle();
@@ -69,10 +524,21 @@ public class PostService {
         dto.dislikes = p.getDislikes() == null ? 0 : p.getDislikes();
         dto.topic = p.getTopic();
         dto.imageUrl = p.getImageUrl();
+        dto.imageThumbnailUrl = images.variantUrl(p.getImageUrl(), ImageProcessingService.THUMBNAIL_SUFFIX);
+        dto.imageFeedUrl = images.variantUrl(p.getImageUrl(), ImageProcessingService.FEED_SUFFIX);
         dto.status = p.getStatus();
         dto.author = new com.example.backend.web.dto.AuthorDto(p.getAuthorName(), p.getAuthorAvatarUrl(), p.getAuthorEmail());
-        var comments = commentRepo.findByPostId(p.getId());
-        dto.comments = comments.stream().map(this::toCommentDto).toList();
+        dto.comments = comments;
+        dto.version = p.getVersion() == null ? 0 : p.getVersion();
+        dto.updatedAt = p.getUpdatedAt() != null ? p.getUpdatedAt() : p.getCreatedAt();
+        return dto;
+    }
+
+    // Adds reactions not yet flushed by ReactionCounters to the persisted counts
+    private com.example.backend.web.dto.PostResponseDto withPendingReactions(com.example.backend.web.dto.PostResponseDto dto) {
+        Long id = Long.valueOf(dto.id);
+        dto.likes += (int) reactions.pendingLikes(id);
+        dto.dislikes += (int) reactions.pendingDislikes(id);
         return dto;
     }
 }
@@ -0,0 +1,154 @@
+package com.example.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Absorbs like/dislike clicks in memory and writes them behind in batches.
+ *
+ * Each post gets a pair of {@link LongAdder}s, so concurrent clicks on the same post never
+ * contend on a lock or a database row. A scheduled flush drains the adders and applies the
+ * deltas with one batched {@code UPDATE posts SET likes = likes + ?} statement. Until then,
+ * readers add {@link #pendingLikes}/{@link #pendingDislikes} to the persisted counts.
+ *
+ * Deltas being flushed stay in the pending counts until the UPDATE has committed and the cached
+ * DTOs have been invalidated, so a reader never sees a count drop: at worst, between the commit
+ * and the hand-over, a freshly loaded post counts the flushed clicks twice for an instant.
+ */
+@Service
+public class ReactionCounters {
+    private static final Logger log = LoggerFactory.getLogger(ReactionCounters.class);
+    private static final String FLUSH_SQL = "UPDATE posts SET likes = likes + ?, dislikes = dislikes + ?,"
+            + " version = COALESCE(version, 0) + 1, updated_at = ? WHERE id = ?";
+
+    // Entries are only dropped when their post is deleted: removing an idle entry would race
+    // with a click that already holds a reference to it. One entry per reacted-to post is cheap.
+    private final Map<Long, Delta> pending = new ConcurrentHashMap<>();
+    // Counts every click, so HTTP validators can tell that merged counts have changed
+    private final AtomicLong sequence = new AtomicLong();
+    // A lock rather than synchronized: the flush does JDBC I/O, which would pin a virtual thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final JdbcTemplate jdbc;
+    private final PostDtoCache dtoCache;
+
+    public ReactionCounters(JdbcTemplate jdbc, PostDtoCache dtoCache) {
+        this.jdbc = jdbc;
+        this.dtoCache = dtoCache;
+    }
+
+    public void like(Long postId) {
+        pending.computeIfAbsent(postId, k -> new Delta()).likes.increment();
+        sequence.incrementAndGet();
+    }
+
+    public void dislike(Long postId) {
+        pending.computeIfAbsent(postId, k -> new Delta()).dislikes.increment();
+        sequence.incrementAndGet();
+    }
+
+    /** Increases with every reaction recorded. Flushing does not change it. */
+    public long sequence() {
+        return sequence.get();
+    }
+
+    public long pendingLikes(Long postId) {
+        Delta d = pending.get(postId);
+        return d == null ? 0 : d.likes.sum() + d.flushingLikes.get();
+    }
+
+    public long pendingDislikes(Long postId) {
+        Delta d = pending.get(postId);
+        return d == null ? 0 : d.dislikes.sum() + d.flushingDislikes.get();
+    }
+
+    /** Drops unflushed reactions of a post that no longer exists. */
+    public void discard(Long postId) {
+        pending.remove(postId);
+    }
+
+    /**
+     * Writes all accumulated deltas to the database in one JDBC batch. Clicks that arrive while
+     * the flush runs stay in the adders and go out with the next flush.
+     */
+    @Scheduled(fixedDelayString = "${posts.reactions.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        List<Object[]> batch = new ArrayList<>();
+        List<Delta> drained = new ArrayList<>();
+        List<Long> flushedIds = new ArrayList<>();
+        Timestamp now = Timestamp.from(Instant.now());
+        for (Map.Entry<Long, Delta> e : pending.entrySet()) {
+            Delta d = e.getValue();
+            long likes = d.likes.sum();
+            long dislikes = d.dislikes.sum();
+            if (likes == 0 && dislikes == 0) continue;
+            // Into the in-flight counts first, so pending never dips below the true number
+            d.flushingLikes.addAndGet(likes);
+            d.flushingDislikes.addAndGet(dislikes);
+            d.likes.add(-likes);
+            d.dislikes.add(-dislikes);
+            batch.add(new Object[]{likes, dislikes, now, e.getKey()});
+            drained.add(d);
+            flushedIds.add(e.getKey());
+        }
+        if (batch.isEmpty()) return;
+        try {
+            jdbc.batchUpdate(FLUSH_SQL, batch);
+        } catch (DataAccessException ex) {
+            // Put the deltas back so the next flush retries them
+            for (int i = 0; i < batch.size(); i++) {
+                Delta d = drained.get(i);
+                d.likes.add((Long) batch.get(i)[0]);
+                d.dislikes.add((Long) batch.get(i)[1]);
+                d.flushingLikes.addAndGet(-(Long) batch.get(i)[0]);
+                d.flushingDislikes.addAndGet(-(Long) batch.get(i)[1]);
+            }
+            log.warn("Failed to flush reactions for {} posts; will retry", batch.size(), ex);
+            return;
+        }
+        // Cached DTOs carry the persisted counts, which just changed; only then stop adding the
+        // flushed deltas on top
+        dtoCache.invalidateAll(flushedIds);
+        for (int i = 0; i < batch.size(); i++) {
+            drained.get(i).flushingLikes.addAndGet(-(Long) batch.get(i)[0]);
+            drained.get(i).flushingDislikes.addAndGet(-(Long) batch.get(i)[1]);
+        }
+        log.debug("Flushed reactions for {} posts", batch.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static final class Delta {
+        final LongAdder likes = new LongAdder();
+        final LongAdder dislikes = new LongAdder();
+        // Drained by a flush whose UPDATE has not committed yet; only the flush thread writes these
+        final AtomicLong flushingLikes = new AtomicLong();
+        final AtomicLong flushingDislikes = new AtomicLong();
+    }
+}
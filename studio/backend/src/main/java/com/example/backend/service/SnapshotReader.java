@@ -0,0 +1,75 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sequential reader over a {@link DerivedStateSnapshot} file; mirrors {@link SnapshotWriter}.
+ * Reads through a fixed buffer instead of mapping the file, so nothing holds on to it once the
+ * channel is closed.
+ */
+final class SnapshotReader {
+    private static final int BUFFER = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER).flip();
+    private final long end;
+    // File position of the next byte to read into buf
+    private long next;
+
+    SnapshotReader(FileChannel channel, long start, long end) {
+        this.channel = channel;
+        this.next = start;
+        this.end = end;
+    }
+
+    int getInt() {
+        require(Integer.BYTES);
+        return buf.getInt();
+    }
+
+    long getLong() {
+        require(Long.BYTES);
+        return buf.getLong();
+    }
+
+    String getString() {
+        int length = getInt();
+        if (length < 0) return null;
+        if (length > remaining()) throw new IllegalStateException("Corrupt snapshot string");
+        byte[] bytes = new byte[length];
+        for (int off = 0; off < length; ) {
+            require(1);
+            int n = Math.min(buf.remaining(), length - off);
+            buf.get(bytes, off, n);
+            off += n;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long remaining() {
+        return buf.remaining() + (end - next);
+    }
+
+    private void require(int bytes) {
+        if (buf.remaining() >= bytes) return;
+        if (remaining() < bytes) throw new IllegalStateException("Truncated snapshot");
+        buf.compact();
+        try {
+            // Usually one read fills the buffer; loop for channels that return less
+            while (buf.position() < bytes) {
+                buf.limit(buf.position() + (int) Math.min(buf.remaining(), end - next));
+                int n = channel.read(buf, next);
+                buf.limit(buf.capacity());
+                if (n < 0) throw new IllegalStateException("Truncated snapshot");
+                next += n;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buf.flip();
+    }
+}
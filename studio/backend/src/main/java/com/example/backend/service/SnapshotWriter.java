@@ -0,0 +1,88 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Sequential writer for {@link DerivedStateSnapshot} files. Values are collected in a fixed
+ * direct buffer that is written to the channel (and added to the running checksum) whenever it
+ * fills up, so the snapshot is never assembled on the heap and the file is never mapped, which
+ * would keep it locked against the final rename on Windows.
+ */
+final class SnapshotWriter {
+    private static final int BUFFER = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER);
+    private final CRC32 crc = new CRC32();
+    // File position of the first byte in buf
+    private long flushed;
+
+    SnapshotWriter(FileChannel channel, long start) {
+        this.channel = channel;
+        this.flushed = start;
+    }
+
+    long position() {
+        return flushed + buf.position();
+    }
+
+    void putInt(int v) {
+        ensure(Integer.BYTES);
+        buf.putInt(v);
+    }
+
+    void putLong(long v) {
+        ensure(Long.BYTES);
+        buf.putLong(v);
+    }
+
+    /** Writes a length-prefixed UTF-8 string; null is written as length -1. */
+    void putString(String s) {
+        if (s == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        for (int off = 0; off < bytes.length; ) {
+            ensure(1);
+            int n = Math.min(buf.remaining(), bytes.length - off);
+            buf.put(bytes, off, n);
+            off += n;
+        }
+    }
+
+    /** Writes out whatever is still buffered. */
+    void finish() throws IOException {
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** CRC32 of everything written; complete once {@link #finish()} has returned. */
+    long checksum() {
+        return crc.getValue();
+    }
+
+    private void ensure(int bytes) {
+        if (buf.remaining() < bytes) flush();
+    }
+
+    private void flush() {
+        buf.flip();
+        crc.update(buf.duplicate());
+        try {
+            while (buf.hasRemaining()) flushed += channel.write(buf, flushed);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buf.clear();
+    }
+}
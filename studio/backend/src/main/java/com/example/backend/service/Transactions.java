@@ -0,0 +1,25 @@
+package com.example.backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Helpers for work that has to wait for the surrounding transaction. */
+final class Transactions {
+
+    private Transactions() {
+    }
+
+    /** Runs after the surrounding transaction commits, or straight away if there is none. */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
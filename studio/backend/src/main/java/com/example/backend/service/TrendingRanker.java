@@ -0,0 +1,204 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Post;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * Keeps every post ranked by a "hot" score so the trending list is a walk down a sorted set.
+ *
+ * The score is the Reddit hot formula: log10 of the net votes (likes minus dislikes, plus
+ * {@value #COMMENT_WEIGHT} per comment), signed, plus the post's creation time in units of
+ * {@value #DECAY_SECONDS} seconds. Newer posts get a fixed head start instead of older ones
+ * being decayed, so a score only changes when its post does and nothing needs periodic
+ * re-scoring. There is one {@link ConcurrentSkipListSet} per status; a change re-inserts that
+ * one post in O(log n). Every change runs inside {@code entries.compute} for its post id, so
+ * concurrent changes to one post are serialised and never leave a stale node in a set. Filled by
+ * {@link DerivedStateBootstrap} at startup and kept current by {@link PostService}.
+ */
+@Component
+public class TrendingRanker {
+    private static final Logger log = LoggerFactory.getLogger(TrendingRanker.class);
+
+    // Every 45000 s (12.5 h) of age costs as much as a tenfold difference in votes
+    private static final double DECAY_SECONDS = 45000;
+    private static final int COMMENT_WEIGHT = 2;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Ranked>> byStatus = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    /** Called once the startup load is complete; until then the trending endpoint serves the plain feed. */
+    public void markReady() {
+        ready = true;
+        log.info("Trending ranking ready: {} posts", entries.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Adds a post, replacing any previous entry for it. */
+    public void add(Post p, long comments) {
+        Entry e = new Entry(p.getId(), p.getCreatedAt().getEpochSecond(), p.getStatus(),
+                p.getLikes() == null ? 0 : p.getLikes(), p.getDislikes() == null ? 0 : p.getDislikes(), comments);
+        e.rescore();
+        entries.compute(e.id, (id, old) -> {
+            if (old != null) set(old.status).remove(old.ranked);
+            set(e.status).add(e.ranked);
+            return e;
+        });
+    }
+
+    public void like(Long postId) {
+        update(postId, e -> e.likes++);
+    }
+
+    public void dislike(Long postId) {
+        update(postId, e -> e.dislikes++);
+    }
+
+    public void comment(Long postId) {
+        update(postId, e -> e.comments++);
+    }
+
+    public void updateStatus(Long postId, String status) {
+        entries.computeIfPresent(postId, (id, e) -> {
+            synchronized (e) {
+                if (!Objects.equals(status, e.status)) {
+                    set(e.status).remove(e.ranked);
+                    e.status = status;
+                    set(status).add(e.ranked);
+                }
+            }
+            return e;
+        });
+    }
+
+    public void remove(Long postId) {
+        entries.computeIfPresent(postId, (id, e) -> {
+            synchronized (e) {
+                set(e.status).remove(e.ranked);
+            }
+            return null;
+        });
+    }
+
+    /** Ids of the highest scoring posts with the given status, best first. */
+    public List<Long> top(String status, int limit) {
+        NavigableSet<Ranked> set = byStatus.get(status);
+        if (set == null || limit <= 0) return List.of();
+        List<Long> ids = new ArrayList<>(limit);
+        Iterator<Ranked> it = set.iterator();
+        while (it.hasNext() && ids.size() < limit) {
+            ids.add(it.next().id());
+        }
+        return ids;
+    }
+
+    long maxPostId() {
+        long max = 0;
+        for (Long id : entries.keySet()) max = Math.max(max, id);
+        return max;
+    }
+
+    void clear() {
+        entries.clear();
+        byStatus.clear();
+    }
+
+    /** Writes the counts behind every score; scores are recomputed on load. */
+    void writeTo(SnapshotWriter out) {
+        List<Entry> all = new ArrayList<>(entries.values());
+        out.putInt(all.size());
+        for (Entry e : all) {
+            synchronized (e) {
+                out.putLong(e.id);
+                out.putLong(e.createdAtSeconds);
+                out.putString(e.status);
+                out.putLong(e.likes);
+                out.putLong(e.dislikes);
+                out.putLong(e.comments);
+            }
+        }
+    }
+
+    /** Replaces all entries with ones written by {@link #writeTo}. */
+    void readFrom(SnapshotReader in) {
+        clear();
+        int n = in.getInt();
+        for (int i = 0; i < n; i++) {
+            Entry e = new Entry(in.getLong(), in.getLong(), in.getString(), in.getLong(), in.getLong(), in.getLong());
+            e.rescore();
+            entries.put(e.id, e);
+            set(e.status).add(e.ranked);
+        }
+    }
+
+    /** Hot score for the given counts and creation time (epoch seconds). */
+    static double score(long likes, long dislikes, long comments, long createdAtSeconds) {
+        long net = likes - dislikes + COMMENT_WEIGHT * comments;
+        double order = Math.log10(Math.max(Math.abs(net), 1));
+        return Long.signum(net) * order + createdAtSeconds / DECAY_SECONDS;
+    }
+
+    private void update(Long postId, Consumer<Entry> change) {
+        entries.computeIfPresent(postId, (id, e) -> {
+            synchronized (e) {
+                NavigableSet<Ranked> set = set(e.status);
+                set.remove(e.ranked);
+                change.accept(e);
+                e.rescore();
+                set.add(e.ranked);
+            }
+            return e;
+        });
+    }
+
+    private NavigableSet<Ranked> set(String status) {
+        return byStatus.computeIfAbsent(status == null ? "" : status, k -> new ConcurrentSkipListSet<>());
+    }
+
+    private static final class Entry {
+        final long id;
+        final long createdAtSeconds;
+        String status;
+        long likes;
+        long dislikes;
+        long comments;
+        Ranked ranked;
+
+        Entry(long id, long createdAtSeconds, String status, long likes, long dislikes, long comments) {
+            this.id = id;
+            this.createdAtSeconds = createdAtSeconds;
+            this.status = status;
+            this.likes = likes;
+            this.dislikes = dislikes;
+            this.comments = comments;
+        }
+
+        void rescore() {
+            ranked = new Ranked(score(likes, dislikes, comments, createdAtSeconds), id);
+        }
+    }
+
+    // Highest score first; ties go to the newer (higher) id so the order is total
+    private record Ranked(double score, long id) implements Comparable<Ranked> {
+        @Override
+        public int compareTo(Ranked o) {
+            int c = Double.compare(o.score, score);
+            return c != 0 ? c : Long.compare(o.id, id);
+        }
+    }
+}
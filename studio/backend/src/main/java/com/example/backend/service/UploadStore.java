@@ -0,0 +1,114 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for uploaded files.
+ *
+ * A file is named after the SHA-256 of its bytes and placed in two levels of shard
+ * directories ({@code uploads/ab/cd/abcd....jpg}), so identical uploads share one file and no
+ * directory grows past a few thousand entries. The digest is computed while the upload is
+ * streamed to a temp file with {@link FileChannel#transferFrom}, so the bytes are read once.
+ */
+@Service
+public class UploadStore {
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[a-z0-9]{1,8}");
+    private static final long TRANSFER_CHUNK = 1 << 20;
+
+    private final Path uploadsRoot = Paths.get("uploads").toAbsolutePath().normalize();
+    private final Path tmpDir = uploadsRoot.resolve(".tmp");
+    private final String publicBaseUrl;
+
+    public UploadStore(@Value("${uploads.public-base-url:http://localhost:8081}") String publicBaseUrl) {
+        this.publicBaseUrl = publicBaseUrl.endsWith("/") ? publicBaseUrl.substring(0, publicBaseUrl.length() - 1) : publicBaseUrl;
+    }
+
+    /** A stored file; {@code duplicate} is true if identical content was already present. */
+    public record StoredUpload(Path file, String url, boolean duplicate) {
+    }
+
+    public StoredUpload store(MultipartFile upload, String originalName) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+
+        Files.createDirectories(tmpDir);
+        Path tmp = Files.createTempFile(tmpDir, "upload", ".part");
+        try {
+            try (InputStream in = new DigestInputStream(upload.getInputStream(), sha256);
+                 ReadableByteChannel src = Channels.newChannel(in);
+                 FileChannel dst = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long n;
+                while ((n = dst.transferFrom(src, position, TRANSFER_CHUNK)) > 0) {
+                    position += n;
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            String relative = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension(originalName);
+            Path target = uploadsRoot.resolve(relative);
+            String url = publicBaseUrl + "/uploads/" + relative;
+            if (Files.exists(target)) {
+                return new StoredUpload(target, url, true);
+            }
+            Files.createDirectories(target.getParent());
+            return new StoredUpload(target, url, !publish(tmp, target));
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Puts the finished temp file in place; returns false if the same content got there first.
+     * A rename cannot tell (ATOMIC_MOVE silently replaces an existing file on POSIX), so the
+     * file is hard-linked, which fails atomically if the target exists. The temp name is
+     * removed by the caller either way.
+     */
+    private static boolean publish(Path tmp, Path target) throws IOException {
+        try {
+            Files.createLink(target, tmp);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            // Same content uploaded concurrently; the other request won
+            return false;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // No hard links here (e.g. FAT or some network shares). Replacing a file with
+            // identical bytes is harmless; the only loss is that a race reports a duplicate as new.
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        }
+    }
+
+    private static String extension(String name) {
+        if (name == null) return "";
+        int i = name.lastIndexOf('.');
+        if (i < 0) return "";
+        String ext = name.substring(i).toLowerCase(Locale.ROOT);
+        return SAFE_EXTENSION.matcher(ext).matches() ? ext : "";
+    }
+}
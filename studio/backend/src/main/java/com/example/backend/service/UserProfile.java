@@ -0,0 +1,26 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.AuthResponse;
+import com.example.backend.model.User;
+
+/**
+ * Immutable snapshot of the public parts of a user, with the role resolved once up front.
+ * This is what {@link UserService} caches and what profile and auth responses are built from.
+ */
+public record UserProfile(Long id, String email, String fullName, String photoUrl, boolean admin) {
+
+    public static UserProfile from(User user) {
+        boolean admin = user.getRoles() != null && user.getRoles().stream()
+                .anyMatch(r -> "ADMIN".equalsIgnoreCase(r.getName()));
+        return new UserProfile(user.getId(), user.getEmail(), user.getFullName(), user.getPhotoUrl(), admin);
+    }
+
+    /** Role name as the frontend expects it: "admin" or "user". */
+    public String role() {
+        return admin ? "admin" : "user";
+    }
+
+    public AuthResponse.UserDto toUserDto() {
+        return new AuthResponse.UserDto(id, email, fullName, photoUrl, role());
+    }
+}
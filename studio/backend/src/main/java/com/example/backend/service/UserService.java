@@ -1,22 +1,42 @@
 package com.example.backend.service;
 
+import com.example.backend.config.ReadRouting;
 import com.example.backend.dto.ChangePasswordRequest;
 import com.example.backend.dto.UpdateProfileRequest;
 import com.example.backend.model.User;
 import com.example.backend.repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHasher passwordHasher;
+    // Profiles are read on every page render; writes go through this service and refresh the
+    // entry. The TTL only covers role changes made directly in the database.
+    private final Cache<Long, UserProfile> profiles;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PasswordHasher passwordHasher,
+                       @Value("${users.profile-cache.max-size:10000}") long cacheSize,
+                       @Value("${users.profile-cache.ttl-seconds:600}") long ttlSeconds) {
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
     }
 
-    public User updateProfile(Long userId, UpdateProfileRequest request) {
+    /** Saves the changes in one transaction; the cached profile is replaced once it commits. */
+    @Transactional
+    public UserProfile updateProfile(Long userId, UpdateProfileRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
@@ -28,15 +48,22 @@ public class UserService {
             user.setPhotoUrl(request.getPhotoUrl());
         }
 
-        return userRepository.save(user);
+        UserProfile profile = UserProfile.from(userRepository.save(user));
+        Transactions.afterCommit(() -> profiles.put(profile.id(), profile));
+        return profile;
     }
 
+    /**
+     * Checks the current password and hashes the new one on the {@link PasswordHasher} pool with no
+     * connection held, then writes just the hash.
+     */
     public void changePassword(Long userId, ChangePasswordRequest request) {
-        User user = userRepository.findById(userId)
+        // The primary: a replica may not have a password changed moments ago
+        User user = ReadRouting.onPrimary(() -> userRepository.findById(userId))
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
         // Verify current password
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(request.getCurrentPassword(), user.getPasswordHash())) {
             throw new IllegalArgumentException("Current password is incorrect");
         }
 
@@ -46,12 +73,37 @@ public class UserService {
         }
 
         // Update password
-        user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
+        String hash = passwordHasher.encode(request.getNewPassword());
+        if (userRepository.updatePasswordHash(userId, hash) == 0) {
+            throw new IllegalArgumentException("User not found");
+        }
+        profiles.invalidate(userId);
     }
 
-    public User getUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    /**
+     * Cached profile of a user; loads it (with roles) only on a miss. A hit touches no connection;
+     * the miss runs in findById's own read-only transaction, so with replicas it reads one.
+     */
+    public UserProfile getProfile(Long userId) {
+        UserProfile profile = profiles.get(userId, id -> userRepository.findById(id).map(UserProfile::from).orElse(null));
+        if (profile == null) {
+            throw new IllegalArgumentException("User not found");
+        }
+        return profile;
+    }
+
+    /** Stores the profile of a user that was just loaded or saved, so the next lookup is free. */
+    public UserProfile cacheProfile(User user) {
+        UserProfile profile = UserProfile.from(user);
+        profiles.put(profile.id(), profile);
+        return profile;
+    }
+
+    public CacheStats profileCacheStats() {
+        return profiles.stats();
+    }
+
+    public long profileCacheSize() {
+        return profiles.estimatedSize();
     }
 }
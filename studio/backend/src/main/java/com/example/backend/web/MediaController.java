@@ -0,0 +1,176 @@
+package com.example.backend.web;
+
+import com.example.backend.service.MediaStats;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves uploaded media from the uploads directory.
+ *
+ * Content-addressed files (named after their SHA-256, see UploadStore) never change, so they
+ * are sent with a year-long immutable Cache-Control and their hash as ETag. Conditional GETs
+ * (If-None-Match, If-Modified-Since) and single byte ranges with If-Range are handled here.
+ * Each URL maps to exactly one file, so responses carry no Vary header. Bodies go out through Tomcat's
+ * sendfile support when the connector offers it, so the kernel copies the file and the
+ * worker thread is released immediately; otherwise through {@link FileChannel#transferTo}.
+ */
+@Controller
+public class MediaController {
+    private static final Pattern HASHED_NAME = Pattern.compile("^([0-9a-f]{64})(_[a-z]+)?\\.[a-z0-9]+$");
+    private static final Pattern RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String MUTABLE = "public, max-age=86400";
+    // Below this size a plain write is cheaper than handing the file to the poller
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private final Path uploadsRoot = Paths.get("uploads").toAbsolutePath().normalize();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final MediaStats stats;
+
+    public MediaController(MediaStats stats) {
+        this.stats = stats;
+    }
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long started = System.nanoTime();
+        String lookup = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String relative = pathMatcher.extractPathWithinPattern("/uploads/**", lookup);
+        Path file = resolve(relative);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        MediaType type = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attrs.size();
+        long lastModified = attrs.lastModifiedTime().toMillis() / 1000 * 1000;
+        Matcher hashed = HASHED_NAME.matcher(file.getFileName().toString());
+        String etag = hashed.matches()
+                ? "\"" + hashed.group(1) + (hashed.group(2) == null ? "" : hashed.group(2)) + "\""
+                : "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, hashed.matches() ? IMMUTABLE : MUTABLE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            stats.record(304, 0, false, System.nanoTime() - started);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        int status = HttpServletResponse.SC_OK;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            Matcher m = RANGE.matcher(range.trim());
+            if (m.matches() && !(m.group(1).isEmpty() && m.group(2).isEmpty())) {
+                if (m.group(1).isEmpty()) {
+                    start = Math.max(0, length - position(m.group(2)));
+                } else {
+                    start = position(m.group(1));
+                    if (!m.group(2).isEmpty()) end = Math.min(end, position(m.group(2)));
+                }
+                if (start > end || start >= length) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    stats.record(416, 0, false, System.nanoTime() - started);
+                    return;
+                }
+                status = HttpServletResponse.SC_PARTIAL_CONTENT;
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+            // Multiple ranges or malformed headers: fall through and send the whole file
+        }
+
+        long count = end - start + 1;
+        response.setStatus(status);
+        response.setContentType(type.toString());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod())) {
+            stats.record(status, 0, false, System.nanoTime() - started);
+            return;
+        }
+
+        boolean sendfile = count >= SENDFILE_THRESHOLD
+                && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"));
+        if (sendfile) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+        } else {
+            try (FileChannel channel = FileChannel.open(file)) {
+                WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+                long position = start;
+                while (position <= end) {
+                    position += channel.transferTo(position, end + 1 - position, out);
+                }
+            }
+        }
+        stats.record(status, count, sendfile, System.nanoTime() - started);
+    }
+
+    /** Maps the URL path to a regular file under the uploads root, refusing dot-segments. */
+    private Path resolve(String relative) {
+        if (relative == null || relative.isEmpty()) return null;
+        for (String segment : relative.split("/")) {
+            if (segment.isEmpty() || segment.startsWith(".")) return null;
+        }
+        Path file = uploadsRoot.resolve(relative).normalize();
+        if (!file.startsWith(uploadsRoot) || !Files.isRegularFile(file)) return null;
+        return file;
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) tag = tag.substring(2);
+                if (tag.equals("*") || tag.equals(etag)) return true;
+            }
+            return false;
+        }
+        try {
+            long since = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return since >= 0 && lastModified <= since;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // A byte position from a Range header; anything past Long.MAX_VALUE is past the end of any file
+    private static long position(String digits) {
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
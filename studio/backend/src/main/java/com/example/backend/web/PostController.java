@@ -1,51 +1,181 @@
 package com.example.backend.web;
 
 import com.example.backend.model.Post;
+import com.example.backend.service.AuthenticatedUser;
+import com.example.backend.service.CommentPage;
+import com.example.backend.service.FeedPage;
 import com.example.backend.service.PostService;
+import com.example.backend.service.UserService;
+import com.example.backend.web.dto.BulkPostRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.example.backend.service.EntityTag;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/posts")
 public class PostController {
     private static final Logger log = LoggerFactory.getLogger(PostController.class);
+    /** Response header carrying the cursor for the next feed page; absent on the last page. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final byte[] SSE_PREFIX = "data: ".getBytes(StandardCharsets.UTF_8);
     private final PostService svc;
+    private final UserService userService;
+    private final ObjectMapper mapper;
 
-    public PostController(PostService svc) { this.svc = svc; }
+    public PostController(PostService svc, UserService userService, ObjectMapper mapper) {
+        this.svc = svc;
+        this.userService = userService;
+        this.mapper = mapper;
+    }
 
     @GetMapping
-    public List<com.example.backend.web.dto.PostResponseDto> list(@RequestParam(required = false) String q,
-                                                                  @RequestParam(required = false) String status,
-                                                                  @RequestParam(required = false) String userId) {
-        log.info("GET /api/posts called with q='{}' status='{}' userId='{}'", q, status, userId);
-        var posts = (q != null && !q.isEmpty()) ? svc.search(q) : svc.listAll();
-        
+    public ResponseEntity<List<com.example.backend.web.dto.PostResponseDto>> list(@RequestParam(required = false) String q,
+                                                                                  @RequestParam(required = false) String status,
+                                                                                  @RequestParam(required = false) String userId,
+                                                                                  @RequestParam(required = false) String topic,
+                                                                                  @RequestParam(required = false) String author,
+                                                                                  @RequestParam(required = false) String cursor,
+                                                                                  @RequestParam(required = false) Integer limit,
+                                                                                  WebRequest request) {
+        log.debug("GET /api/posts called with q='{}' status='{}' userId='{}' topic='{}' author='{}' cursor='{}' limit={}",
+                q, status, userId, topic, author, cursor, limit);
+
         // Filter by status if provided (default to 'approved' for public feed)
         if (status == null || status.isEmpty()) {
             status = "approved"; // Default to approved posts only
         }
-        final String filterStatus = status;
-        posts = posts.stream()
-            .filter(p -> filterStatus.equals(p.getStatus()))
-            .toList();
-            
-        return posts.stream().map(svc::toPostDto).toList();
+        if (topic != null && topic.isEmpty()) topic = null;
+        if (author != null && author.isEmpty()) author = null;
+        // userId is shorthand for that user's email as the author filter
+        if (userId != null && !userId.isEmpty()) {
+            try {
+                author = userService.getProfile(Long.valueOf(userId)).email();
+            } catch (NumberFormatException e) {
+                log.warn("list: rejected userId='{}'", userId);
+                return ResponseEntity.badRequest().build();
+            } catch (IllegalArgumentException e) {
+                // Unknown user: no posts
+                return ResponseEntity.ok(List.of());
+            }
+        }
+
+        // Answer polls with 304 before touching the database
+        EntityTag tag = svc.feedTag(q, status, topic, author, cursor, limit);
+        if (request.checkNotModified(tag.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        if (q != null && !q.isEmpty()) {
+            var posts = svc.search(q, status, topic, author, limit);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(tag.etag()).body(svc.toPostDtos(posts));
+        }
+
+        FeedPage page;
+        try {
+            page = svc.feed(status, topic, author, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            log.warn("list: rejected cursor='{}'", cursor);
+            return ResponseEntity.badRequest().build();
+        }
+        var body = svc.toPostDtos(page.posts());
+        var resp = ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(tag.etag());
+        if (page.nextCursor() != null) {
+            resp.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return resp.body(body);
+    }
+
+    /** Hot posts, best first: votes and comments weighed against age. */
+    @GetMapping("/trending")
+    public ResponseEntity<List<com.example.backend.web.dto.PostResponseDto>> trending(@RequestParam(required = false) String status,
+                                                                                      @RequestParam(required = false) Integer limit,
+                                                                                      WebRequest request) {
+        if (status == null || status.isEmpty()) status = "approved";
+        EntityTag tag = svc.feedTag("trending", status, limit);
+        if (request.checkNotModified(tag.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        var body = svc.toPostDtos(svc.trending(status, limit));
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(tag.etag()).body(body);
+    }
+
+    /**
+     * Streams posts as newline-delimited JSON (default) or server-sent events, one post per
+     * line/event, flushing after every small batch. Without {@code status} every post is exported.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String status,
+                                                        @RequestParam(defaultValue = "ndjson") String format) {
+        log.debug("GET /api/posts/export called with status='{}' format='{}'", status, format);
+        boolean sse = "sse".equalsIgnoreCase(format);
+        if (!sse && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        final String filterStatus = (status == null || status.isEmpty()) ? null : status;
+        StreamingResponseBody body = out -> {
+            try {
+                svc.export(filterStatus, batch -> writeBatch(out, batch, sse));
+            } catch (UncheckedIOException e) {
+                // Client went away mid-export
+                log.warn("export aborted: {}", e.getCause().getMessage());
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(sse ? MediaType.TEXT_EVENT_STREAM : NDJSON)
+                .body(body);
+    }
+
+    private void writeBatch(OutputStream out, List<com.example.backend.web.dto.PostResponseDto> batch, boolean sse) {
+        try {
+            for (var dto : batch) {
+                if (sse) out.write(SSE_PREFIX);
+                out.write(mapper.writeValueAsBytes(dto));
+                out.write('\n');
+                if (sse) out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<com.example.backend.web.dto.PostResponseDto> get(@PathVariable Long id) {
-        return svc.get(id).map(p -> ResponseEntity.ok(svc.toPostDto(p))).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<com.example.backend.web.dto.PostResponseDto> get(@PathVariable Long id, WebRequest request) {
+        var tag = svc.postTag(id);
+        if (tag.isEmpty()) return ResponseEntity.notFound().build();
+        String etag = tag.get().etag();
+        long lastModified = tag.get().lastModified().toEpochMilli();
+        if (request.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return svc.getDto(id)
+                .map(dto -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noCache())
+                        .eTag(etag)
+                        .lastModified(lastModified)
+                        .body(dto))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     public ResponseEntity<com.example.backend.web.dto.PostResponseDto> create(@Validated @RequestBody com.example.backend.web.dto.PostResponseDto dto) {
-        log.info("POST /api/posts create called; incoming dto: title='{}' authorPresent={}", dto.title, dto.author != null);
+        log.debug("POST /api/posts create called; incoming dto: title='{}' authorPresent={}", dto.title, dto.author != null);
         Post p = new Post();
         p.setTitle(dto.title);
         p.setContent(dto.content);
@@ -68,7 +198,7 @@ public class PostController {
 
     @PutMapping("/{id}/status")
     public ResponseEntity<com.example.backend.web.dto.PostResponseDto> updateStatus(@PathVariable Long id, @RequestBody java.util.Map<String, String> body) {
-        log.info("PUT /api/posts/{}/status called with body={}", id, body);
+        log.debug("PUT /api/posts/{}/status called with body={}", id, body);
         String status = body.get("status");
         if (status == null || (!status.equals("approved") && !status.equals("pending"))) {
             log.warn("updateStatus: invalid status value={}", status);
@@ -83,22 +213,85 @@ public class PostController {
         return ResponseEntity.ok(svc.toPostDto(opt.get()));
     }
 
+    /**
+     * Sets the status of many posts at once. The body selects posts either by {@code ids} or by a
+     * {@code filter} (status plus optional topic/author) and gives the new {@code status}.
+     */
+    @PutMapping("/status")
+    public ResponseEntity<?> bulkUpdateStatus(@RequestBody BulkPostRequest body,
+            @RequestAttribute(name = AuthenticatedUser.REQUEST_ATTRIBUTE, required = false) AuthenticatedUser caller) {
+        if (caller == null || !caller.isAdmin()) return adminOnly(caller);
+        String status = body.status;
+        if (status == null || (!status.equals("approved") && !status.equals("pending"))) {
+            log.warn("bulkUpdateStatus: invalid status value={}", status);
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", "status must be approved or pending"));
+        }
+        try {
+            List<Long> ids = svc.resolveBulkIds(body);
+            long started = System.nanoTime();
+            var result = svc.bulkUpdateStatus(ids, status);
+            log.info("bulkUpdateStatus: {} of {} posts set to {} in {} ms",
+                    result.changed, result.requested, status, (System.nanoTime() - started) / 1_000_000);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        }
+    }
+
+    /** Deletes many posts, with their comments, selected by {@code ids} or a {@code filter}. */
+    @DeleteMapping
+    public ResponseEntity<?> bulkDelete(@RequestBody BulkPostRequest body,
+            @RequestAttribute(name = AuthenticatedUser.REQUEST_ATTRIBUTE, required = false) AuthenticatedUser caller) {
+        if (caller == null || !caller.isAdmin()) return adminOnly(caller);
+        try {
+            List<Long> ids = svc.resolveBulkIds(body);
+            long started = System.nanoTime();
+            var result = svc.bulkDelete(ids);
+            log.info("bulkDelete: {} of {} posts deleted in {} ms",
+                    result.changed, result.requested, (System.nanoTime() - started) / 1_000_000);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        }
+    }
+
+    // The filter answers 401 before the bulk routes without a valid token; null is only a safety net
+    private ResponseEntity<?> adminOnly(AuthenticatedUser caller) {
+        if (caller == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(java.util.Map.of("error", "Authentication required"));
+        }
+        log.warn("bulk moderation refused for user id={} role={}", caller.id(), caller.role());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(java.util.Map.of("error", "Admin role required"));
+    }
+
     @PostMapping("/{id}/like")
     public ResponseEntity<com.example.backend.web.dto.PostResponseDto> like(@PathVariable Long id) {
-        return svc.get(id).map(post -> {
-            post.setLikes(post.getLikes() == null ? 1 : post.getLikes() + 1);
-            Post saved = svc.create(post);
-            return ResponseEntity.ok(svc.toPostDto(saved));
-        }).orElse(ResponseEntity.notFound().build());
+        return svc.like(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/{id}/dislike")
     public ResponseEntity<com.example.backend.web.dto.PostResponseDto> dislike(@PathVariable Long id) {
-        return svc.get(id).map(post -> {
-            post.setDislikes(post.getDislikes() == null ? 1 : post.getDislikes() + 1);
-            Post saved = svc.create(post);
-            return ResponseEntity.ok(svc.toPostDto(saved));
-        }).orElse(ResponseEntity.notFound().build());
+        return svc.dislike(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<List<com.example.backend.web.dto.CommentResponseDto>> comments(@PathVariable Long id,
+                                                                                        @RequestParam(required = false) String cursor,
+                                                                                        @RequestParam(required = false) Integer limit) {
+        if (!svc.exists(id)) return ResponseEntity.notFound().build();
+        CommentPage page;
+        try {
+            page = svc.comments(id, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            log.warn("comments: rejected cursor='{}' for post id={}", cursor, id);
+            return ResponseEntity.badRequest().build();
+        }
+        var resp = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            resp.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return resp.body(page.comments());
     }
 
     @PostMapping("/{id}/comments")
@@ -113,7 +306,7 @@ public class PostController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        log.info("DELETE /api/posts/{} called", id);
+        log.debug("DELETE /api/posts/{} called", id);
         var opt = svc.get(id);
         if (opt.isEmpty()) {
             log.warn("delete: post id={} not found", id);
@@ -0,0 +1,123 @@
+package com.example.backend.web;
+
+import com.example.backend.service.ImageProcessingService;
+import com.example.backend.service.JwtService;
+import com.example.backend.service.MediaStats;
+import com.example.backend.service.PasswordHasher;
+import com.example.backend.service.PostDtoCache;
+import com.example.backend.service.UserService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+    private final PostDtoCache postDtoCache;
+    private final ImageProcessingService images;
+    private final MediaStats media;
+    private final JwtService jwtService;
+    private final PasswordHasher passwordHasher;
+    private final UserService userService;
+
+    public StatsController(PostDtoCache postDtoCache, ImageProcessingService images, MediaStats media,
+                           JwtService jwtService, PasswordHasher passwordHasher, UserService userService) {
+        this.postDtoCache = postDtoCache;
+        this.images = images;
+        this.media = media;
+        this.jwtService = jwtService;
+        this.passwordHasher = passwordHasher;
+        this.userService = userService;
+    }
+
+    @GetMapping("/post-cache")
+    public Map<String, Object> postCache() {
+        CacheStats stats = postDtoCache.stats();
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("hits", stats.hitCount());
+        resp.put("misses", stats.missCount());
+        resp.put("hitRate", stats.hitRate());
+        resp.put("evictions", stats.evictionCount());
+        resp.put("evictedBytes", stats.evictionWeight());
+        resp.put("loadFailures", stats.loadFailureCount());
+        resp.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        resp.put("entries", postDtoCache.size());
+        resp.put("weightedBytes", postDtoCache.weightedSize());
+        return resp;
+    }
+
+    @GetMapping("/images")
+    public Map<String, Object> images() {
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("queueDepth", images.queueDepth());
+        resp.put("queueCapacity", images.queueCapacity());
+        resp.put("activeWorkers", images.activeWorkers());
+        resp.put("workers", images.workers());
+        resp.put("accepted", images.acceptedCount());
+        resp.put("rejected", images.rejectedCount());
+        resp.put("completed", images.completedCount());
+        resp.put("failed", images.failedCount());
+        resp.put("oversized", images.oversizedCount());
+        long done = images.completedCount() + images.failedCount();
+        resp.put("averageProcessingMillis", done == 0 ? 0.0 : images.processingNanos() / 1_000_000.0 / done);
+        return resp;
+    }
+
+    @GetMapping("/media")
+    public Map<String, Object> media() {
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("requests", media.requests());
+        resp.put("notModified", media.notModified());
+        resp.put("partial", media.partial());
+        resp.put("sendfile", media.sendfile());
+        resp.put("bytesServed", media.bytesServed());
+        resp.put("averageHandlerMicros", media.requests() == 0 ? 0.0 : media.handlerNanos() / 1000.0 / media.requests());
+        return resp;
+    }
+
+    @GetMapping("/token-cache")
+    public Map<String, Object> tokenCache() {
+        CacheStats stats = jwtService.cacheStats();
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("hits", stats.hitCount());
+        resp.put("misses", stats.missCount());
+        resp.put("hitRate", stats.hitRate());
+        resp.put("evictions", stats.evictionCount());
+        return resp;
+    }
+
+    @GetMapping("/user-profiles")
+    public Map<String, Object> userProfiles() {
+        CacheStats stats = userService.profileCacheStats();
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("hits", stats.hitCount());
+        resp.put("misses", stats.missCount());
+        resp.put("hitRate", stats.hitRate());
+        resp.put("evictions", stats.evictionCount());
+        resp.put("entries", userService.profileCacheSize());
+        return resp;
+    }
+
+    @GetMapping("/password-hashing")
+    public Map<String, Object> passwordHashing() {
+        Map<String, Object> resp = new LinkedHashMap<>();
+        long hashes = passwordHasher.hashCount();
+        resp.put("bcryptStrength", passwordHasher.strength());
+        resp.put("queueDepth", passwordHasher.queueDepth());
+        resp.put("queueCapacity", passwordHasher.queueCapacity());
+        resp.put("activeWorkers", passwordHasher.activeWorkers());
+        resp.put("workers", passwordHasher.workers());
+        resp.put("hashes", hashes);
+        resp.put("rejected", passwordHasher.rejectedCount());
+        resp.put("timedOut", passwordHasher.timedOutCount());
+        resp.put("rehashed", passwordHasher.rehashedCount());
+        resp.put("averageHashMillis", hashes == 0 ? 0.0 : passwordHasher.hashNanos() / 1_000_000.0 / hashes);
+        resp.put("averageQueueWaitMillis", hashes == 0 ? 0.0 : passwordHasher.waitNanos() / 1_000_000.0 / hashes);
+        resp.put("maxHashMillis", passwordHasher.maxHashNanos() / 1_000_000.0);
+        return resp;
+    }
+}
@@ -1,5 +1,10 @@
 package com.example.backend.web;
 
+import com.example.backend.service.ImageProcessingService;
+import com.example.backend.service.UploadStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -12,26 +17,30 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.bind.annotation.RequestPart;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/uploads")
 public class UploadController {
     private static final Logger log = LoggerFactory.getLogger(UploadController.class);
 
-    private final Path uploadsRoot = Paths.get("uploads").toAbsolutePath().normalize();
+    private final UploadStore store;
+    private final ImageProcessingService images;
+    private final MeterRegistry meters;
+    private final DistributionSummary uploadSizes;
 
-    public UploadController() {
-        try {
-            Files.createDirectories(uploadsRoot);
-        } catch (IOException e) {
-            log.warn("Could not create uploads directory {}", uploadsRoot, e);
-        }
+    public UploadController(UploadStore store, ImageProcessingService images, MeterRegistry meters) {
+        this.store = store;
+        this.images = images;
+        this.meters = meters;
+        this.uploadSizes = DistributionSummary.builder("uploads.size")
+                .description("Size of accepted uploads")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue(50.0 * 1024 * 1024)
+                .register(meters);
     }
 
     @PostMapping
@@ -39,23 +48,39 @@ public class UploadController {
         if (file == null || file.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "file required"));
         }
-    String originalProvided = file.getOriginalFilename();
-    String original = originalProvided == null ? "" : StringUtils.cleanPath(originalProvided);
-    String ext = "";
-    int i = original.lastIndexOf('.');
-    if (i >= 0) ext = original.substring(i);
-        String name = UUID.randomUUID().toString() + ext;
-        Path target = uploadsRoot.resolve(name);
+        String originalProvided = file.getOriginalFilename();
+        String original = originalProvided == null ? "" : StringUtils.cleanPath(originalProvided);
+        Timer.Sample sample = Timer.start(meters);
         try {
-            Files.copy(file.getInputStream(), target);
+            UploadStore.StoredUpload stored = store.store(file, original);
+            uploadSizes.record(file.getSize());
+            sample.stop(storeTimer(stored.duplicate() ? "duplicate" : "stored"));
+            if (stored.duplicate()) {
+                log.info("Upload deduplicated to existing {}", stored.file().getFileName());
+            }
             // Return full URL including protocol and host for frontend to load images from backend
-            String url = "http://localhost:8081/uploads/" + name;
+            String url = stored.url();
             Map<String, String> resp = new HashMap<>();
             resp.put("url", url);
+            // Resized variants are generated in the background and appear shortly after upload
+            boolean variants = stored.duplicate() && images.hasVariants(stored.file()) || images.submit(stored.file());
+            if (variants) {
+                resp.put("thumbnailUrl", ImageProcessingService.variantName(url, ImageProcessingService.THUMBNAIL_SUFFIX));
+                resp.put("feedUrl", ImageProcessingService.variantName(url, ImageProcessingService.FEED_SUFFIX));
+            }
             return ResponseEntity.status(HttpStatus.CREATED).body(resp);
         } catch (IOException e) {
+            sample.stop(storeTimer("error"));
             log.error("Failed to store upload", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "cannot store file"));
         }
     }
+
+    // Time to hash and write the upload (or find its duplicate); variants are timed separately
+    private Timer storeTimer(String outcome) {
+        return Timer.builder("uploads.store")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meters);
+    }
 }
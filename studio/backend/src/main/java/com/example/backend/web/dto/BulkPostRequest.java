@@ -0,0 +1,23 @@
+package com.example.backend.web.dto;
+
+import java.util.List;
+
+/**
+ * Body of the bulk moderation endpoints. Exactly one of {@code ids} or {@code filter} selects
+ * the posts; {@code status} is the new status (ignored by bulk delete).
+ */
+public class BulkPostRequest {
+    public List<Long> ids;
+    public Filter filter;
+    public String status;
+
+    public BulkPostRequest() {}
+
+    public static class Filter {
+        public String status;
+        public String topic;
+        public String author;
+
+        public Filter() {}
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.backend.web.dto;
+
+import java.util.List;
+
+/** Outcome of a bulk moderation call, with one entry per selected id. */
+public class BulkResultDto {
+    public int requested;
+    public int changed;
+    public int unchanged;
+    public int notFound;
+    public List<Outcome> results;
+
+    public BulkResultDto() {}
+
+    public static class Outcome {
+        public String id;
+        // "updated", "deleted", "unchanged" or "not_found"
+        public String outcome;
+
+        public Outcome() {}
+
+        public Outcome(String id, String outcome) {
+            this.id = id;
+            this.outcome = outcome;
+        }
+    }
+}
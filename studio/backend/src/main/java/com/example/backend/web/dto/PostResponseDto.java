@@ -1,5 +1,8 @@
 package com.example.backend.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
 import java.util.List;
 
 public class PostResponseDto {
@@ -8,12 +11,44 @@ public class PostResponseDto {
     public String topic;
     public String title;
     public String imageUrl;
+    // Resized variants of imageUrl; null until generated or for external images
+    public String imageThumbnailUrl;
+    public String imageFeedUrl;
     public String content;
     public String createdAt;
     public String status;
     public int likes;
     public int dislikes;
+    // Total number of comments; `comments` holds only the first few, the rest are paged
+    // through GET /api/posts/{id}/comments
+    public long commentCount;
     public List<CommentResponseDto> comments;
 
+    // Row version the DTO was built from; used for ETags, not serialised
+    @JsonIgnore
+    public long version;
+    @JsonIgnore
+    public Instant updatedAt;
+
     public PostResponseDto() {}
+
+    /** Shallow copy; the author and comment list are shared with {@code other}. */
+    public PostResponseDto(PostResponseDto other) {
+        this.id = other.id;
+        this.author = other.author;
+        this.topic = other.topic;
+        this.title = other.title;
+        this.imageUrl = other.imageUrl;
+        this.imageThumbnailUrl = other.imageThumbnailUrl;
+        this.imageFeedUrl = other.imageFeedUrl;
+        this.content = other.content;
+        this.createdAt = other.createdAt;
+        this.status = other.status;
+        this.likes = other.likes;
+        this.dislikes = other.dislikes;
+        this.commentCount = other.commentCount;
+        this.comments = other.comments;
+        this.version = other.version;
+        this.updatedAt = other.updatedAt;
+    }
 }
@@ -0,0 +1,8 @@
+-- Flyway V4: tombstones for deleted posts, read by the snapshot catch-up at startup instead of
+-- comparing every post id. Rows older than the snapshot retention are pruned.
+CREATE TABLE post_deletions (
+  post_id BIGINT NOT NULL PRIMARY KEY,
+  deleted_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_post_deletions_deleted ON post_deletions (deleted_at);
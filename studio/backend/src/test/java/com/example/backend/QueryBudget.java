@@ -0,0 +1,58 @@
+package com.example.backend;
+
+import com.example.backend.config.QueryCounter;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Puts a budget on the SQL a call may run, counted at the JDBC level by {@link QueryCounter}.
+ * Works with MockMvc (the request runs on the test thread) and with direct service calls.
+ *
+ * <pre>
+ * QueryBudget.assertAtMost(3, () -&gt; mvc.perform(get("/api/posts")));
+ * </pre>
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    /** Runs the call and fails, listing the statements, if it executed more than {@code max} of them. */
+    public static QueryCounter.Stats assertAtMost(int max, Executable call) throws Throwable {
+        QueryCounter.Stats stats = QueryCounter.start();
+        try {
+            call.execute();
+        } finally {
+            QueryCounter.stop(stats);
+        }
+        if (stats.statements() > max) {
+            fail("Expected at most " + max + " statements but ran " + stats.statements() + ":\n" + describe(stats));
+        }
+        return stats;
+    }
+
+    /** Runs the call and fails if any one statement shape ran more than {@code max} times (N+1). */
+    public static QueryCounter.Stats assertNoRepeats(int max, Executable call) throws Throwable {
+        QueryCounter.Stats stats = QueryCounter.start();
+        try {
+            call.execute();
+        } finally {
+            QueryCounter.stop(stats);
+        }
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        if (repeated != null && repeated.getValue() > max) {
+            fail("Statement ran " + repeated.getValue() + " times (at most " + max + " allowed):\n" + describe(stats));
+        }
+        return stats;
+    }
+
+    private static String describe(QueryCounter.Stats stats) {
+        return stats.shapes().entrySet().stream()
+                .map(e -> "  " + e.getValue() + "x " + e.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.backend.config;
+
+import com.example.backend.model.User;
+import com.example.backend.service.AuthenticatedUser;
+import com.example.backend.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/** Public routes ignore a bad token; routes acting for a user answer 401 without a valid one. */
+class JwtAuthenticationFilterTests {
+
+    private final JwtService jwt = new JwtService(null, "test-secret-test-secret-test-secret-0123456789", 60_000, 100);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwt, new ObjectMapper());
+
+    @Test
+    void validTokenExposesCaller() throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/posts", "Bearer " + token());
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        AuthenticatedUser user = assertInstanceOf(AuthenticatedUser.class,
+                request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE));
+        assertEquals(5L, user.id());
+    }
+
+    @Test
+    void invalidTokenOnPublicRouteIsAnonymous() throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/posts", "Bearer demo-token-admin");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+        assertNull(request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE));
+    }
+
+    @Test
+    void userRouteRejectsMissingOrInvalidToken() throws Exception {
+        for (String header : new String[]{null, "Bearer demo-token-admin", "Bearer \"}{"}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            filter.doFilter(request("PUT", "/api/user/5/password", header), response, chain);
+
+            assertNull(chain.getRequest());
+            assertEquals(401, response.getStatus());
+            // Always well-formed JSON, whatever the token contained
+            assertNotNull(new ObjectMapper().readTree(response.getContentAsString()).get("error"));
+        }
+    }
+
+    @Test
+    void bulkModerationRoutesRejectMissingToken() throws Exception {
+        for (String[] route : new String[][]{{"PUT", "/api/posts/status"}, {"DELETE", "/api/posts"}}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            filter.doFilter(request(route[0], route[1], null), response, chain);
+
+            assertNull(chain.getRequest());
+            assertEquals(401, response.getStatus());
+        }
+    }
+
+    @Test
+    void userRouteAcceptsValidToken() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("PUT", "/api/user/5/profile", "Bearer " + token()), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+
+    private String token() {
+        User u = new User();
+        u.setId(5L);
+        u.setEmail("e@example.com");
+        return jwt.generateToken(u, "user");
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (authorization != null) request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        return request;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.backend.config;
+
+import com.example.backend.model.Post;
+import com.example.backend.service.PostService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read/write routing over two in-memory H2 databases. Nothing replicates between them: each test
+ * starts from a copy of the primary, so anything written afterwards is visible only where it was
+ * routed, the way a lagging replica would behave.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTests.PRIMARY_URL,
+        "datasource.replicas.enabled=true",
+        "datasource.replicas.urls=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "datasource.replicas.health-check-interval-ms=3600000",
+        "snapshot.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:rw-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:rw-replica;DB_CLOSE_DELAY=-1";
+    private static final String FRONTEND_ORIGIN = "http://localhost:9002";
+
+    private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private PostService posts;
+    @Autowired
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void replicate() {
+        replica.execute("DROP ALL OBJECTS");
+        for (String sql : primary.queryForList("SCRIPT", String.class)) {
+            replica.execute(sql);
+        }
+        routing.checkReplicas();
+    }
+
+    @Test
+    void readOnlyServiceMethodsReadTheReplica() {
+        replica.update("insert into posts (title, content, status, created_at, likes, dislikes, version) "
+                + "values ('only on the replica', 'x', 'approved', current_timestamp, 0, 0, 0)");
+
+        List<String> titles = posts.feed("approved", null, null, null, 100).posts().stream().map(Post::getTitle).toList();
+
+        assertTrue(titles.contains("only on the replica"));
+        assertEquals(0, primary.queryForObject("select count(*) from posts where title = 'only on the replica'", Integer.class));
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        Post p = new Post();
+        p.setTitle("written");
+        p.setContent("x");
+        p.setStatus("approved");
+        Long id = posts.create(p).getId();
+
+        assertEquals(1, primary.queryForObject("select count(*) from posts where id = ?", Integer.class, id));
+        assertEquals(0, replica.queryForObject("select count(*) from posts where id = ?", Integer.class, id));
+        // The replica has not caught up, but cache fills read the primary
+        assertFalse(posts.exists(id));
+        assertTrue(posts.getDto(id).isPresent());
+    }
+
+    @Test
+    void writerReadsItsOwnWritesCrossOrigin() throws Exception {
+        // The frontend runs on another port and calls the API without credentials
+        MvcResult created = mvc.perform(post("/api/posts")
+                        .header(HttpHeaders.ORIGIN, FRONTEND_ORIGIN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"fresh post\",\"content\":\"x\",\"status\":\"approved\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, containsString(ReadYourWritesFilter.HEADER)))
+                .andReturn();
+        String until = created.getResponse().getHeader(ReadYourWritesFilter.HEADER);
+        assertNotNull(until);
+
+        // Sending the header back needs a preflight, which must allow it
+        mvc.perform(options("/api/posts")
+                        .header(HttpHeaders.ORIGIN, FRONTEND_ORIGIN)
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, ReadYourWritesFilter.HEADER.toLowerCase()))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/api/posts").header(HttpHeaders.ORIGIN, FRONTEND_ORIGIN).header(ReadYourWritesFilter.HEADER, until))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", hasItem("fresh post")))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+        // Another client reads the lagging replica, and gets no validator to revalidate that copy with
+        mvc.perform(get("/api/posts").header(HttpHeaders.ORIGIN, FRONTEND_ORIGIN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", not(hasItem("fresh post"))))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void pinBeyondOneWindowIsIgnored() throws Exception {
+        replica.update("insert into posts (title, content, status, created_at, likes, dislikes, version) "
+                + "values ('replica row', 'x', 'approved', current_timestamp, 0, 0, 0)");
+        String farFuture = Long.toString(System.currentTimeMillis() + 3_600_000);
+
+        mvc.perform(get("/api/posts").header(ReadYourWritesFilter.HEADER, farFuture))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", hasItem("replica row")));
+    }
+
+    @Test
+    void postLoadedForACommentReadsThePrimary() throws Exception {
+        Post p = new Post();
+        p.setTitle("not replicated yet");
+        p.setContent("x");
+        p.setStatus("approved");
+        Long id = posts.create(p).getId();
+
+        // A different client, with no pin, comments on the post the replica does not have yet
+        mvc.perform(post("/api/posts/{id}/comments", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"first\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenNoReplicaIsHealthy() throws Exception {
+        HikariDataSource primaryPool = pool(PRIMARY_URL);
+        HikariDataSource missing = pool("jdbc:h2:mem:rw-missing;IFEXISTS=TRUE");
+        missing.setInitializationFailTimeout(-1);
+        missing.setConnectionTimeout(250);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryPool, List.of(missing), 5000);
+        routing.afterPropertiesSet();
+        try {
+            routing.checkReplicas();
+            assertEquals(List.of(), routing.healthyReplicas());
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            try (Connection connection = routing.getConnection()) {
+                assertTrue(connection.getMetaData().getURL().startsWith("jdbc:h2:mem:rw-primary"));
+            } finally {
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            }
+        } finally {
+            routing.destroy();
+        }
+    }
+
+    private static HikariDataSource pool(String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setUsername("sa");
+        pool.setPassword("");
+        return pool;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.AuthService;
+import com.example.backend.service.PasswordHasherBusyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthControllerTests {
+
+    private final AuthService auth = mock(AuthService.class);
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(new AuthController(auth)).build();
+    }
+
+    @Test
+    void busyHasherIs503WithRetryAfter() throws Exception {
+        when(auth.login(any())).thenThrow(new PasswordHasherBusyException("Too many authentication requests, try again shortly", 2));
+        when(auth.register(any())).thenThrow(new PasswordHasherBusyException("Authentication timed out, try again shortly", 5));
+
+        mvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"a@example.com\",\"password\":\"x\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.error").value("Too many authentication requests, try again shortly"));
+        mvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"a@example.com\",\"password\":\"x\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+
+    @Test
+    void badCredentialsAreStill401() throws Exception {
+        when(auth.login(any())).thenThrow(new IllegalArgumentException("Invalid email or password"));
+
+        mvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"a@example.com\",\"password\":\"x\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+    }
+}
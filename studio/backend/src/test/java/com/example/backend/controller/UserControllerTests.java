@@ -0,0 +1,87 @@
+package com.example.backend.controller;
+
+import com.example.backend.config.JwtAuthenticationFilter;
+import com.example.backend.model.User;
+import com.example.backend.service.JwtService;
+import com.example.backend.service.UserProfile;
+import com.example.backend.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Account changes through the authentication filter: only the owner or an admin gets through. */
+class UserControllerTests {
+
+    private final JwtService jwt = new JwtService(null, "test-secret-test-secret-test-secret-0123456789", 60_000, 100);
+    private final UserService users = mock(UserService.class);
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(new UserController(users))
+                .addFilters(new JwtAuthenticationFilter(jwt, new ObjectMapper()))
+                .build();
+        when(users.updateProfile(anyLong(), any()))
+                .thenAnswer(inv -> new UserProfile(inv.getArgument(0), "b@example.com", "B", null, false));
+    }
+
+    @Test
+    void ownerMayChangeTheirAccount() throws Exception {
+        mvc.perform(profile(2L, token(2L, "user"))).andExpect(status().isOk());
+        mvc.perform(password(2L, token(2L, "user"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void anotherUsersTokenIsForbidden() throws Exception {
+        mvc.perform(profile(2L, token(1L, "user"))).andExpect(status().isForbidden());
+        mvc.perform(password(2L, token(1L, "user"))).andExpect(status().isForbidden());
+
+        verify(users, never()).updateProfile(anyLong(), any());
+        verify(users, never()).changePassword(anyLong(), any());
+    }
+
+    @Test
+    void adminMayChangeAnyAccount() throws Exception {
+        mvc.perform(profile(2L, token(1L, "admin"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void missingTokenIsUnauthorized() throws Exception {
+        mvc.perform(profile(2L, null)).andExpect(status().isUnauthorized());
+    }
+
+    private String token(Long id, String role) {
+        User u = new User();
+        u.setId(id);
+        u.setEmail("user" + id + "@example.com");
+        return jwt.generateToken(u, role);
+    }
+
+    private static MockHttpServletRequestBuilder profile(Long id, String token) {
+        return withToken(put("/api/user/" + id + "/profile"), token).content("{\"fullName\":\"Mallory\"}");
+    }
+
+    private static MockHttpServletRequestBuilder password(Long id, String token) {
+        return withToken(put("/api/user/" + id + "/password"), token)
+                .content("{\"currentPassword\":\"old-secret\",\"newPassword\":\"new-secret\"}");
+    }
+
+    private static MockHttpServletRequestBuilder withToken(MockHttpServletRequestBuilder request, String token) {
+        request.contentType(MediaType.APPLICATION_JSON);
+        return token == null ? request : request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.backend.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Builds the schema from the Flyway migrations (MySQL mode), validates it against the entities,
+ * then runs EXPLAIN on the SQL behind each hot repository query and fails on a table scan.
+ *
+ * Queries that scan on purpose are not covered: countGroupedByPost (startup only),
+ * streamByStatus (exports) and findByTitleContainingIgnoreCase (the LIKE search fallback).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.flyway.placeholders.lob_type=CLOB",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.backend.repository.RecordingStatementInspector",
+        "snapshot.enabled=false"
+})
+@Transactional
+class QueryPlanTests {
+
+    private static final List<Long> IDS = List.of(1L, 2L, 3L);
+    private static final Instant NOW = Instant.now();
+
+    @Autowired
+    private PostRepository posts;
+    @Autowired
+    private CommentRepository comments;
+    @Autowired
+    private PostDeletionRepository deletions;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private RoleRepository roles;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void feedUsesStatusIndex() {
+        assertUses("idx_posts_status_created",
+                () -> posts.findFeedFirstPage("approved", null, null, PageRequest.ofSize(20)));
+        assertUses("idx_posts_status_created",
+                () -> posts.findFeedAfter("approved", null, null, NOW, 10L, PageRequest.ofSize(20)));
+        assertUses("idx_posts_status_created",
+                () -> posts.findIdsByFilter("pending", null, null, PageRequest.ofSize(1000)));
+    }
+
+    @Test
+    void filteredFeedUsesTopicAndAuthorIndexes() {
+        assertUses("idx_posts_topic_created",
+                () -> posts.findFeedFirstPage("approved", "music", null, PageRequest.ofSize(20)));
+        assertUses("idx_posts_topic_created",
+                () -> posts.findFeedAfter("approved", "music", null, NOW, 10L, PageRequest.ofSize(20)));
+        assertUses("idx_posts_author_created",
+                () -> posts.findFeedFirstPage("approved", null, "a@example.com", PageRequest.ofSize(20)));
+        assertUses("idx_posts_author_created",
+                () -> posts.findFeedAfter("approved", null, "a@example.com", NOW, 10L, PageRequest.ofSize(20)));
+        assertIndexed(() -> posts.findFeedFirstPage("approved", "music", "a@example.com", PageRequest.ofSize(20)));
+        assertUses("idx_posts_topic_created",
+                () -> posts.findIdsByFilter("pending", "music", null, PageRequest.ofSize(1000)));
+        assertUses("idx_posts_author_created",
+                () -> posts.findIdsByFilter("pending", null, "a@example.com", PageRequest.ofSize(1000)));
+    }
+
+    @Test
+    void commentPagesCountsAndPreviewsUsePostIndex() {
+        // H2 may pick its own foreign-key index on post_id instead of idx_comments_post_created
+        assertIndexed(() -> comments.findPageFirst(1L, PageRequest.ofSize(20)));
+        assertIndexed(() -> comments.findPageAfter(1L, NOW, 10L, PageRequest.ofSize(20)));
+        assertIndexed(() -> comments.countByPostIds(IDS));
+        assertIndexed(() -> comments.findPreviews(IDS, 3));
+        assertIndexed(() -> comments.deleteByPostIdIn(IDS));
+    }
+
+    @Test
+    void lookupsByIdUsePrimaryKey() {
+        assertIndexed(() -> posts.findById(1L));
+        assertIndexed(() -> posts.findVersionById(1L));
+        assertIndexed(() -> posts.touch(1L, NOW));
+        assertIndexed(() -> posts.findStatusByIdIn(IDS));
+        assertIndexed(() -> posts.updateStatusByIdIn(IDS, "approved", NOW));
+        assertIndexed(() -> posts.deleteByIdIn(IDS));
+        assertIndexed(() -> posts.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(500)));
+        assertIndexed(() -> posts.findChangedSince(NOW, 0L, 100L, PageRequest.ofSize(500)));
+    }
+
+    @Test
+    void catchUpDeletionsUseDeletedIndex() {
+        assertUses("idx_post_deletions_deleted", () -> deletions.findPostIdsDeletedSince(NOW));
+        assertUses("idx_post_deletions_deleted", () -> deletions.deleteOlderThan(NOW));
+    }
+
+    @Test
+    void loginLookupsUseUniqueKeys() {
+        assertIndexed(() -> users.findByEmail("a@example.com"));
+        assertIndexed(() -> roles.findByName("ADMIN"));
+    }
+
+    private void assertUses(String index, Runnable call) {
+        for (String plan : plansOf(call)) {
+            assertTrue(plan.toLowerCase().contains(index), () -> "expected " + index + " in plan:\n" + plan);
+        }
+    }
+
+    private void assertIndexed(Runnable call) {
+        for (String plan : plansOf(call)) {
+            assertFalse(plan.contains("tableScan"), () -> "table scan in plan:\n" + plan);
+        }
+    }
+
+    private List<String> plansOf(Runnable call) {
+        RecordingStatementInspector.start();
+        List<String> sql;
+        try {
+            call.run();
+        } finally {
+            sql = RecordingStatementInspector.stop();
+        }
+        assertFalse(sql.isEmpty(), "no statement was executed");
+        return sql.stream().map(this::explain).toList();
+    }
+
+    // Parameters are bound as null: H2 plans the statement without looking at the values
+    private String explain(String sql) {
+        return jdbc.execute((ConnectionCallback<String>) con -> {
+            try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql)) {
+                int count = ps.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= count; i++) {
+                    ps.setObject(i, null);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+}
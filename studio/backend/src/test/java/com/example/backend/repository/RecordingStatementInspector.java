@@ -0,0 +1,34 @@
+package com.example.backend.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Captures the SQL Hibernate sends while the calling thread is recording, so tests can
+ * inspect the statements behind a repository method. Other threads (scheduled flushes) are ignored.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    static void start() {
+        RECORDED.set(new ArrayList<>());
+    }
+
+    static List<String> stop() {
+        List<String> sql = RECORDED.get();
+        RECORDED.remove();
+        return sql == null ? List.of() : sql;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> sink = RECORDED.get();
+        if (sink != null) {
+            sink.add(sql);
+        }
+        return sql;
+    }
+}
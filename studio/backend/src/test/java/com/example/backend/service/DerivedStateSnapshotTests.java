@@ -0,0 +1,120 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Post;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes the derived state to a snapshot file and restores it into fresh components, including
+ * values larger than the writer's and reader's buffers, and checks that damaged files are ignored.
+ */
+class DerivedStateSnapshotTests {
+
+    private static final Instant T0 = Instant.parse("2024-05-01T12:00:00.123456789Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripRestoresEveryComponent() throws IOException {
+        State before = new State(dir);
+        for (long id = 1; id <= 300; id++) {
+            Post p = post(id, id % 3 == 0 ? "jazz guitar" : "street food", id % 2 == 0 ? "music" : "food");
+            before.search.index(p);
+            before.trending.add(p, id % 5);
+            before.feed.index(p);
+        }
+        // Longer than both 1 MB buffers, so strings are written and read across refills
+        Post big = post(301, "x".repeat(3 << 20) + " zeppelin", "books");
+        before.search.index(big);
+        before.trending.add(big, 0);
+        before.feed.index(big);
+        before.snapshot.arm();
+        before.snapshot.write();
+
+        State after = new State(dir);
+        Optional<DerivedStateSnapshot.Restored> restored = after.snapshot.restore();
+
+        assertTrue(restored.isPresent());
+        assertEquals(301, restored.get().maxPostId());
+        assertEquals(before.search.search("jazz", "approved", null, null, 5), after.search.search("jazz", "approved", null, null, 5));
+        assertEquals(List.of(301L), after.search.search("zeppelin", "approved", null, null, 5));
+        assertEquals(before.search.search("jazz", "approved", "music", "author2@example.com", 50),
+                after.search.search("jazz", "approved", "music", "author2@example.com", 50));
+        assertEquals(List.of(301L), after.search.search("zeppelin", "approved", "books", null, 5));
+        assertEquals(before.trending.top("approved", 20), after.trending.top("approved", 20));
+        assertEquals(before.feed.page("approved", "music", null, null, 10),
+                after.feed.page("approved", "music", null, null, 10));
+        // Nothing keeps the file open or mapped: it can be replaced right away
+        before.snapshot.write();
+        Files.delete(dir.resolve("state.snap"));
+    }
+
+    @Test
+    void corruptBodyIsIgnored() throws IOException {
+        State before = new State(dir);
+        before.search.index(post(1, "hello world", "food"));
+        before.snapshot.write();
+        Path file = dir.resolve("state.snap");
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[]{42}), Files.size(file) - 10);
+        }
+
+        State after = new State(dir);
+        assertFalse(after.snapshot.restore().isPresent());
+        assertTrue(after.search.search("hello", "approved", null, null, 5).isEmpty());
+    }
+
+    @Test
+    void truncatedFileIsIgnored() throws IOException {
+        State before = new State(dir);
+        before.search.index(post(1, "hello world", "food"));
+        before.snapshot.write();
+        Path file = dir.resolve("state.snap");
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.truncate(Files.size(file) - 4);
+        }
+
+        assertFalse(new State(dir).snapshot.restore().isPresent());
+    }
+
+    private static Post post(long id, String title, String topic) {
+        Post p = new Post();
+        p.setId(id);
+        p.setTitle(title);
+        p.setContent("");
+        p.setTopic(topic);
+        p.setAuthorEmail("author" + (id % 4) + "@example.com");
+        p.setStatus("approved");
+        p.setLikes((int) (id % 7));
+        p.setDislikes(0);
+        p.setCreatedAt(T0.plusSeconds(id));
+        return p;
+    }
+
+    private static final class State {
+        final PostSearchIndex search = new PostSearchIndex();
+        final TrendingRanker trending = new TrendingRanker();
+        final FeedIndex feed = new FeedIndex();
+        final DerivedStateSnapshot snapshot;
+
+        State(Path dir) {
+            snapshot = new DerivedStateSnapshot(search, trending, feed, new PostDtoCache(1 << 20),
+                    true, dir.resolve("state.snap").toString(), 10);
+        }
+    }
+}
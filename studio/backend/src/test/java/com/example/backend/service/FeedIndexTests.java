@@ -0,0 +1,113 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedIndexTests {
+
+    private static final Instant T0 = Instant.parse("2024-05-01T12:00:00.123456789Z");
+
+    private final FeedIndex index = new FeedIndex();
+
+    @Test
+    void pagesNewestFirstAndContinuesFromTheLastKey() {
+        for (long id = 1; id <= 10; id++) {
+            index.index(post(id, T0.plusSeconds(id), "music", "a@example.com"));
+        }
+
+        List<KeysetCursor> first = index.page("approved", "music", null, null, 4);
+        assertEquals(List.of(10L, 9L, 8L, 7L), ids(first));
+        assertEquals(new KeysetCursor(T0.plusSeconds(7), 7L), first.get(3));
+
+        KeysetCursor after = KeysetCursor.decode(first.get(3).encode());
+        assertEquals(List.of(6L, 5L, 4L, 3L), ids(index.page("approved", "music", null, after, 4)));
+        assertEquals(List.of(2L, 1L), ids(index.page("approved", "music", null, new KeysetCursor(T0.plusSeconds(3), 3L), 4)));
+    }
+
+    @Test
+    void sameTimestampIsOrderedById() {
+        // Inserted out of order, so the list has to place them rather than append
+        index.index(post(5, T0, "music", "a@example.com"));
+        index.index(post(2, T0, "music", "a@example.com"));
+        index.index(post(9, T0, "music", "a@example.com"));
+        index.index(post(1, T0.minusSeconds(1), "music", "a@example.com"));
+
+        assertEquals(List.of(9L, 5L, 2L, 1L), ids(index.page("approved", "music", null, null, 10)));
+        assertEquals(List.of(2L, 1L), ids(index.page("approved", "music", null, new KeysetCursor(T0, 5L), 10)));
+    }
+
+    @Test
+    void topicAndAuthorAreIntersected() {
+        for (long id = 1; id <= 12; id++) {
+            index.index(post(id, T0.plusSeconds(id), id % 2 == 0 ? "music" : "food", "author" + (id % 3) + "@example.com"));
+        }
+
+        assertEquals(List.of(12L, 6L), ids(index.page("approved", "music", "author0@example.com", null, 10)));
+        assertEquals(List.of(9L, 3L), ids(index.page("approved", "food", "author0@example.com", null, 10)));
+        assertEquals(List.of(11L, 8L, 5L, 2L), ids(index.page("approved", null, "author2@example.com", null, 10)));
+        assertTrue(index.page("approved", "books", "author0@example.com", null, 10).isEmpty());
+        assertTrue(index.page("pending", "music", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void statusChangesAndRemovalsLeaveTheLists() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(post(id, T0.plusSeconds(id), "music", "a@example.com"));
+        }
+
+        index.updateStatus(4L, "rejected");
+        index.remove(2L);
+
+        assertEquals(List.of(5L, 3L, 1L), ids(index.page("approved", "music", null, null, 10)));
+        assertEquals(List.of(4L), ids(index.page("rejected", null, "a@example.com", null, 10)));
+        // A cursor pointing at a post that is gone still continues from its position
+        assertEquals(List.of(1L), ids(index.page("approved", "music", null, new KeysetCursor(T0.plusSeconds(2), 2L), 10)));
+    }
+
+    @Test
+    void reindexingMovesThePost() {
+        index.index(post(1, T0, "music", "a@example.com"));
+        index.index(post(1, T0, "food", "b@example.com"));
+
+        assertTrue(index.page("approved", "music", null, null, 10).isEmpty());
+        assertTrue(index.page("approved", null, "a@example.com", null, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.page("approved", "food", "b@example.com", null, 10)));
+    }
+
+    @Test
+    void growsPastTheInitialCapacity() {
+        // Newest first, so every insert after the first goes to the front of the arrays
+        for (long id = 100; id >= 1; id--) {
+            index.index(post(id, T0.plusSeconds(id), "music", "a@example.com"));
+        }
+
+        List<Long> all = ids(index.page("approved", "music", null, null, 1000));
+        assertEquals(100, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(100L - i, all.get(i));
+        }
+    }
+
+    private static List<Long> ids(List<KeysetCursor> keys) {
+        List<Long> ids = new ArrayList<>(keys.size());
+        for (KeysetCursor k : keys) ids.add(k.id());
+        return ids;
+    }
+
+    private static Post post(long id, Instant createdAt, String topic, String author) {
+        Post p = new Post();
+        p.setId(id);
+        p.setTopic(topic);
+        p.setAuthorEmail(author);
+        p.setStatus("approved");
+        p.setCreatedAt(createdAt);
+        return p;
+    }
+}
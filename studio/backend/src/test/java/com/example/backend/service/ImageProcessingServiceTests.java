@@ -0,0 +1,126 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Variant generation on the worker pool, the pixel limit, and variant lookup without disk
+ * access. Images are written to a scratch directory under uploads/ that is removed afterwards.
+ */
+class ImageProcessingServiceTests {
+
+    private static final String URL = "http://media.example/uploads/zz-images-test/photo.png";
+
+    private final Path dir = Paths.get("uploads", "zz-images-test");
+    private ImageProcessingService images;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(dir);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (images != null) images.shutdown();
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Test
+    void generatesBothVariantsAndKnowsThemAfterwards() throws Exception {
+        images = service(40_000_000);
+        Path original = png("photo.png", 200, 100);
+        assertNull(images.variantUrl(URL, ImageProcessingService.THUMBNAIL_SUFFIX));
+
+        assertTrue(images.submit(original));
+        await(() -> images.completedCount() == 1);
+
+        assertEquals(32, ImageIO.read(dir.resolve("photo_thumb.jpg").toFile()).getWidth());
+        assertEquals(64, ImageIO.read(dir.resolve("photo_feed.jpg").toFile()).getWidth());
+        assertEquals("http://media.example/uploads/zz-images-test/photo_thumb.jpg",
+                images.variantUrl(URL, ImageProcessingService.THUMBNAIL_SUFFIX));
+        assertEquals("http://media.example/uploads/zz-images-test/photo_feed.jpg",
+                images.variantUrl(URL, ImageProcessingService.FEED_SUFFIX));
+        assertTrue(images.hasVariants(original));
+        assertNoTempFiles();
+    }
+
+    @Test
+    void imagesOverThePixelLimitAreNotDecoded() throws Exception {
+        images = service(10_000);
+        Path original = png("photo.png", 200, 100);
+
+        assertTrue(images.submit(original));
+        await(() -> images.oversizedCount() == 1);
+
+        assertEquals(0, images.completedCount());
+        assertFalse(Files.exists(dir.resolve("photo_thumb.jpg")));
+        assertNull(images.variantUrl(URL, ImageProcessingService.THUMBNAIL_SUFFIX));
+    }
+
+    @Test
+    void unsupportedFormatsAreNotQueued() throws IOException {
+        images = service(40_000_000);
+        Path pdf = Files.writeString(dir.resolve("doc.pdf"), "%PDF");
+
+        assertFalse(images.submit(pdf));
+        assertEquals(0, images.acceptedCount());
+        assertNull(images.variantUrl("http://media.example/uploads/zz-images-test/doc.pdf", ImageProcessingService.FEED_SUFFIX));
+    }
+
+    @Test
+    void startupScanFindsExistingVariants() throws Exception {
+        Files.writeString(dir.resolve("photo_thumb.jpg"), "x");
+        images = service(40_000_000);
+
+        images.scanExistingVariants();
+
+        await(() -> images.variantUrl(URL, ImageProcessingService.THUMBNAIL_SUFFIX) != null);
+        assertNull(images.variantUrl(URL, ImageProcessingService.FEED_SUFFIX));
+    }
+
+    @Test
+    void variantNamesReplaceTheExtension() {
+        assertEquals("a/b/name_thumb.jpg", ImageProcessingService.variantName("a/b/name.png", "_thumb"));
+        assertEquals("a.b/name_feed.jpg", ImageProcessingService.variantName("a.b/name", "_feed"));
+    }
+
+    private ImageProcessingService service(long maxPixels) {
+        return new ImageProcessingService(1, 4, 32, 64, 0.8f, maxPixels);
+    }
+
+    private Path png(String name, int width, int height) throws IOException {
+        Path file = dir.resolve(name);
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+        return file;
+    }
+
+    private void assertNoTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.filter(f -> f.getFileName().toString().endsWith(".tmp")).count());
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) throw new AssertionError("timed out");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.backend.service;
+
+import com.example.backend.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Token issue and verification, expiry and the verified-claims cache. */
+class JwtServiceTests {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-0123456789";
+
+    private final JwtService jwt = new JwtService(null, SECRET, 60_000, 100);
+
+    @Test
+    void verifiesIssuedToken() {
+        AuthenticatedUser user = jwt.verify(jwt.generateToken(user(7L, "a@example.com"), "admin"));
+
+        assertEquals(7L, user.id());
+        assertEquals("a@example.com", user.email());
+        assertTrue(user.isAdmin());
+        assertTrue(user.expiresAt().isAfter(Instant.now().plus(Duration.ofSeconds(50))));
+    }
+
+    @Test
+    void repeatVerificationIsServedFromCache() {
+        String token = jwt.generateToken(user(1L, "b@example.com"), "user");
+        jwt.verify(token);
+        jwt.verify(token);
+        jwt.verify(token);
+
+        assertEquals(1, jwt.cacheStats().missCount());
+        assertEquals(2, jwt.cacheStats().hitCount());
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        JwtService expired = new JwtService(null, SECRET, -1_000, 100);
+        String token = expired.generateToken(user(1L, "c@example.com"), "user");
+
+        assertThrows(IllegalArgumentException.class, () -> jwt.verify(token));
+    }
+
+    @Test
+    void rejectsTamperedAndForeignTokens() {
+        String token = jwt.generateToken(user(1L, "d@example.com"), "user");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        JwtService other = new JwtService(null, SECRET.replace('t', 'x'), 60_000, 100);
+
+        assertThrows(IllegalArgumentException.class, () -> jwt.verify(tampered));
+        assertThrows(IllegalArgumentException.class, () -> jwt.verify(other.generateToken(user(1L, "d@example.com"), "admin")));
+        assertThrows(IllegalArgumentException.class, () -> jwt.verify("demo-token-admin"));
+    }
+
+    private static User user(Long id, String email) {
+        User u = new User();
+        u.setId(id);
+        u.setEmail(email);
+        return u;
+    }
+}
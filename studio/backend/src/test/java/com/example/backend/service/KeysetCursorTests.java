@@ -0,0 +1,40 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTests {
+
+    @Test
+    void roundTripsWithNanosecondPrecision() {
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2024-03-01T10:15:30.123456789Z"), 42L);
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void encodedFormIsUrlSafe() {
+        String token = new KeysetCursor(Instant.ofEpochSecond(4_000_000_000L, 999_999_999), Long.MAX_VALUE).encode();
+
+        assertFalse(token.contains("+") || token.contains("/") || token.contains("="), token);
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(encode("1:2")));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(encode("a:b:c")));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(encode("1:2:3:4")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hashing on the bounded pool. The saturation tests use a high BCrypt cost so that a hash is
+ * still running while the test fills the queue behind it.
+ */
+class PasswordHasherTests {
+
+    private PasswordHasher hasher;
+    private ExecutorService callers;
+
+    @AfterEach
+    void tearDown() {
+        if (callers != null) callers.shutdownNow();
+        if (hasher != null) hasher.shutdown();
+    }
+
+    @Test
+    void encodesAndMatchesOnThePool() {
+        hasher = new PasswordHasher(4, 1, 4, 5000, 2);
+
+        String hash = hasher.encode("s3cret");
+
+        assertNotEquals("s3cret", hash);
+        assertTrue(hasher.matches("s3cret", hash));
+        assertFalse(hasher.matches("other", hash));
+        assertFalse(hasher.matches(null, hash));
+        assertEquals(3, hasher.hashCount());
+    }
+
+    @Test
+    void needsRehashComparesTheCost() {
+        hasher = new PasswordHasher(10, 1, 4, 5000, 2);
+
+        assertFalse(hasher.needsRehash("$2a$10$abcdefghijklmnopqrstuv"));
+        assertTrue(hasher.needsRehash("$2a$12$abcdefghijklmnopqrstuv"));
+        assertFalse(hasher.needsRehash("plain"));
+        assertFalse(hasher.needsRehash("$2a$xx$abcdefghijklmnopqrstuv"));
+        assertFalse(hasher.needsRehash(null));
+    }
+
+    @Test
+    void fullQueueIsRejectedRightAway() throws InterruptedException {
+        hasher = new PasswordHasher(14, 1, 1, 30000, 7);
+        callers = Executors.newFixedThreadPool(2);
+
+        callers.submit(() -> hasher.encode("first"));
+        await(() -> hasher.activeWorkers() == 1);
+        callers.submit(() -> hasher.encode("second"));
+        await(() -> hasher.queueDepth() == 1);
+
+        long started = System.nanoTime();
+        PasswordHasherBusyException e = assertThrows(PasswordHasherBusyException.class, () -> hasher.encode("third"));
+
+        assertTrue(System.nanoTime() - started < 100_000_000L, "rejection should not wait for the pool");
+        assertEquals(7, e.getRetryAfterSeconds());
+        assertEquals(1, hasher.rejectedCount());
+        assertEquals(1, hasher.queueCapacity());
+    }
+
+    @Test
+    void slowHashTimesOut() {
+        hasher = new PasswordHasher(14, 1, 1, 20, 3);
+
+        PasswordHasherBusyException e = assertThrows(PasswordHasherBusyException.class, () -> hasher.encode("slow"));
+
+        assertEquals(3, e.getRetryAfterSeconds());
+        assertEquals(1, hasher.timedOutCount());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out waiting");
+            Thread.sleep(5);
+        }
+    }
+}
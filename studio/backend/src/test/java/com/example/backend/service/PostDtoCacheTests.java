@@ -0,0 +1,116 @@
+package com.example.backend.service;
+
+import com.example.backend.web.dto.PostResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostDtoCacheTests {
+
+    private final PostDtoCache cache = new PostDtoCache(1 << 20);
+
+    @Test
+    void loadsOnceUntilInvalidated() {
+        AtomicInteger loads = new AtomicInteger();
+        PostResponseDto first = cache.get(1L, id -> { loads.incrementAndGet(); return dto(id, "a"); });
+        PostResponseDto second = cache.get(1L, id -> { loads.incrementAndGet(); return dto(id, "b"); });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+
+        cache.invalidate(1L);
+        assertFalse(cache.contains(1L));
+        assertEquals("c", cache.get(1L, id -> dto(id, "c")).title);
+        assertEquals(1, cache.invalidationCount());
+    }
+
+    @Test
+    void missingPostIsNotCached() {
+        assertNull(cache.get(7L, id -> null));
+        assertFalse(cache.contains(7L));
+        assertNull(cache.getIfPresent(7L));
+    }
+
+    @Test
+    void bulkPutIsKeptWhenNothingWasInvalidated() {
+        long seen = cache.invalidationCount();
+        Map<Long, PostResponseDto> loaded = new LinkedHashMap<>();
+        loaded.put(1L, dto(1L, "one"));
+        loaded.put(2L, dto(2L, "two"));
+
+        assertTrue(cache.putAllIfUnchanged(loaded, seen));
+        assertEquals("one", cache.getIfPresent(1L).title);
+        assertEquals("two", cache.getIfPresent(2L).title);
+    }
+
+    @Test
+    void bulkPutRacingAnInvalidationIsDropped() {
+        long seen = cache.invalidationCount();
+        // A write to post 2 commits after the batch was read but before it is cached
+        cache.invalidate(2L);
+
+        assertFalse(cache.putAllIfUnchanged(Map.of(1L, dto(1L, "one"), 2L, dto(2L, "stale")), seen));
+        assertFalse(cache.contains(1L));
+        assertFalse(cache.contains(2L));
+    }
+
+    @Test
+    void bulkPutKeepsAnEntryLoadedMeanwhile() {
+        PostResponseDto fresh = cache.get(1L, id -> dto(id, "fresh"));
+
+        assertTrue(cache.putAllIfUnchanged(Map.of(1L, dto(1L, "older")), cache.invalidationCount()));
+        assertSame(fresh, cache.getIfPresent(1L));
+    }
+
+    @Test
+    void invalidateAllRemovesEveryId() {
+        for (long id = 1; id <= 3; id++) cache.get(id, i -> dto(i, "t"));
+
+        cache.invalidateAll(List.of(1L, 3L));
+
+        assertFalse(cache.contains(1L));
+        assertTrue(cache.contains(2L));
+        assertFalse(cache.contains(3L));
+    }
+
+    @Test
+    void weightGrowsWithContent() throws InterruptedException {
+        cache.get(1L, id -> dto(id, "t"));
+        await(() -> cache.weightedSize() > 0);
+        long small = cache.weightedSize();
+        PostResponseDto big = dto(2L, "t");
+        big.content = "x".repeat(10_000);
+        cache.get(2L, id -> big);
+
+        // Caffeine applies writes to the policy asynchronously
+        await(() -> cache.weightedSize() - small >= 20_000);
+        assertTrue(cache.hottest(10).containsAll(List.of(1L, 2L)));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out waiting");
+            Thread.sleep(5);
+        }
+    }
+
+    private static PostResponseDto dto(Long id, String title) {
+        PostResponseDto dto = new PostResponseDto();
+        dto.id = String.valueOf(id);
+        dto.title = title;
+        dto.content = "";
+        return dto;
+    }
+}
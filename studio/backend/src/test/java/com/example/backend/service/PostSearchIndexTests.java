@@ -0,0 +1,129 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** BM25 ranking, status filtering, replacement and compaction of the in-memory search index. */
+class PostSearchIndexTests {
+
+    private final PostSearchIndex index = new PostSearchIndex();
+
+    @Test
+    void titleHitsOutrankContentHits() {
+        index.index(post(1, "weekend notes", "we tried the ramen place", null));
+        index.index(post(2, "ramen", "weekend notes", null));
+
+        assertEquals(List.of(2L, 1L), index.search("ramen", "approved", null, null, 10));
+    }
+
+    @Test
+    void rareTermsWeighMoreThanCommonOnes() {
+        for (long id = 1; id <= 20; id++) {
+            index.index(post(id, "city guide", "food", null));
+        }
+        index.index(post(21, "city guide", "zeppelin", null));
+        index.index(post(22, "city guide", "food food", null));
+
+        // Both match "food zeppelin" once; the rare term decides
+        assertEquals(21L, index.search("food zeppelin", "approved", null, null, 3).get(0));
+    }
+
+    @Test
+    void filtersByStatusAndLimit() {
+        index.index(post(1, "jazz", "", null));
+        Post pending = post(2, "jazz", "", null);
+        pending.setStatus("pending");
+        index.index(pending);
+        index.index(post(3, "jazz", "", null));
+
+        assertEquals(2, index.search("jazz", "approved", null, null, 10).size());
+        assertEquals(List.of(2L), index.search("jazz", "pending", null, null, 10));
+        assertEquals(1, index.search("jazz", "approved", null, null, 1).size());
+        index.updateStatus(2L, "approved");
+        assertEquals(3, index.search("jazz", "approved", null, null, 10).size());
+    }
+
+    @Test
+    void topicAndAuthorFiltersApplyBeforeTheLimit() {
+        // The best matches are all in another topic; the filtered page must still fill up
+        for (long id = 1; id <= 10; id++) {
+            index.index(post(id, "ramen ramen ramen", "", "food"));
+        }
+        Post travel = post(11, "trip", "ramen", "travel");
+        travel.setAuthorEmail("kim@example.com");
+        index.index(travel);
+        index.index(post(12, "trip", "ramen", "travel"));
+
+        assertEquals(List.of(11L, 12L), index.search("ramen", "approved", "travel", null, 2).stream().sorted().toList());
+        assertEquals(List.of(11L), index.search("ramen", "approved", null, "kim@example.com", 1));
+        assertEquals(List.of(11L), index.search("ramen", "approved", "travel", "kim@example.com", 5));
+        assertTrue(index.search("ramen", "approved", "food", "kim@example.com", 5).isEmpty());
+    }
+
+    @Test
+    void reindexingReplacesThePreviousVersion() {
+        index.index(post(1, "old title", "", null));
+        index.index(post(1, "new title", "", null));
+
+        assertTrue(index.search("old", "approved", null, null, 10).isEmpty());
+        assertEquals(List.of(1L), index.search("new", "approved", null, null, 10));
+        index.remove(1L);
+        assertTrue(index.search("new", "approved", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void idfIgnoresTombstonedVersions() {
+        PostSearchIndex fresh = new PostSearchIndex();
+        for (long id = 1; id <= 10; id++) {
+            Post p = post(id, id <= 3 ? "alpha" : "beta", id % 2 == 0 ? "alpha beta" : "gamma", null);
+            fresh.index(p);
+            index.index(p);
+        }
+        // Re-index "beta" posts many times: each edit leaves a tombstone holding "beta"
+        for (int round = 0; round < 50; round++) {
+            for (long id = 4; id <= 10; id++) {
+                index.index(post(id, "beta", id % 2 == 0 ? "alpha beta" : "gamma", null));
+            }
+        }
+
+        assertEquals(fresh.search("alpha beta", "approved", null, null, 10), index.search("alpha beta", "approved", null, null, 10));
+    }
+
+    @Test
+    void replacementsTriggerCompaction() {
+        index.index(post(1, "churn", "", null));
+        for (int i = 0; i < 2500; i++) {
+            index.index(post(1, "churn " + i, "", null));
+        }
+
+        assertTrue(index.tombstones() <= 1000, "tombstones: " + index.tombstones());
+        assertEquals(List.of(1L), index.search("churn", "approved", null, null, 10));
+    }
+
+    @Test
+    void tokenizerSplitsOnNonAlphanumericsAndLowercases() {
+        index.index(post(1, "Hello, World!", "", "Café-Culture"));
+
+        assertEquals(List.of(1L), index.search("WORLD", "approved", null, null, 10));
+        assertEquals(List.of(1L), index.search("café", "approved", null, null, 10));
+        assertTrue(index.search("hello-world?", "approved", null, null, 10).contains(1L));
+        assertTrue(index.search("  ", "approved", null, null, 10).isEmpty());
+    }
+
+    private static Post post(long id, String title, String content, String topic) {
+        Post p = new Post();
+        p.setId(id);
+        p.setTitle(title);
+        p.setContent(content);
+        p.setTopic(topic);
+        p.setStatus("approved");
+        p.setCreatedAt(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(id));
+        return p;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.backend.service;
+
+import com.example.backend.web.dto.PostResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Write-behind of like/dislike clicks: batching, pending counts during a flush, and retries. */
+class ReactionCountersTests {
+
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+    private final PostDtoCache dtoCache = new PostDtoCache(1 << 20);
+    private final ReactionCounters counters = new ReactionCounters(jdbc, dtoCache);
+
+    @Test
+    void flushWritesOneBatchAndInvalidatesCachedPosts() {
+        counters.like(1L);
+        counters.like(1L);
+        counters.dislike(2L);
+        dtoCache.get(1L, ReactionCountersTests::dto);
+        dtoCache.get(3L, ReactionCountersTests::dto);
+        long sequence = counters.sequence();
+
+        counters.flush();
+
+        verify(jdbc).batchUpdate(anyString(), anyList());
+        assertEquals(0, counters.pendingLikes(1L));
+        assertEquals(0, counters.pendingDislikes(2L));
+        assertFalse(cached(1L));
+        assertTrue(cached(3L));
+        assertEquals(sequence, counters.sequence());
+    }
+
+    @Test
+    void countsStayPendingUntilTheUpdateHasRun() {
+        counters.like(1L);
+        counters.like(1L);
+        when(jdbc.batchUpdate(anyString(), anyList())).thenAnswer(inv -> {
+            // A reader during the flush, and a click that arrives meanwhile
+            assertEquals(2, counters.pendingLikes(1L));
+            counters.like(1L);
+            return new int[]{1};
+        });
+
+        counters.flush();
+
+        assertEquals(1, counters.pendingLikes(1L));
+    }
+
+    @Test
+    void failedFlushKeepsDeltasForTheNextOne() {
+        counters.like(1L);
+        counters.dislike(1L);
+        dtoCache.get(1L, ReactionCountersTests::dto);
+        when(jdbc.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        counters.flush();
+
+        assertEquals(1, counters.pendingLikes(1L));
+        assertEquals(1, counters.pendingDislikes(1L));
+        assertTrue(cached(1L));
+    }
+
+    @Test
+    void nothingToFlushRunsNoStatement() {
+        counters.like(1L);
+        counters.discard(1L);
+
+        counters.flush();
+
+        verify(jdbc, never()).batchUpdate(anyString(), anyList());
+    }
+
+    // Whether the DTO is still cached: a hit, rather than a load through the cache
+    private boolean cached(Long id) {
+        return dtoCache.get(id, key -> null) != null;
+    }
+
+    private static PostResponseDto dto(Long id) {
+        PostResponseDto dto = new PostResponseDto();
+        dto.id = String.valueOf(id);
+        dto.title = "post";
+        dto.content = "";
+        return dto;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrendingRankerTests {
+
+    private static final Instant T0 = Instant.parse("2024-05-01T12:00:00Z");
+
+    private final TrendingRanker ranker = new TrendingRanker();
+
+    @Test
+    void scoreGrowsWithVotesAndAge() {
+        long t = T0.getEpochSecond();
+
+        assertTrue(TrendingRanker.score(10, 0, 0, t) > TrendingRanker.score(1, 0, 0, t));
+        assertTrue(TrendingRanker.score(0, 0, 1, t) > TrendingRanker.score(1, 0, 0, t));
+        assertTrue(TrendingRanker.score(0, 5, 0, t) < TrendingRanker.score(0, 0, 0, t));
+        // A tenfold difference in votes is worth 45000 s of age
+        assertEquals(TrendingRanker.score(100, 0, 0, t), TrendingRanker.score(10, 0, 0, t + 45000), 1e-9);
+    }
+
+    @Test
+    void topOrdersByScoreThenNewestId() {
+        ranker.add(post(1, T0, 50), 0);
+        ranker.add(post(2, T0, 5), 0);
+        ranker.add(post(3, T0, 5), 0);
+        ranker.add(post(4, T0.plusSeconds(90000), 5), 0);
+
+        // 4 is two decay units newer, which beats ten times the votes of 1
+        assertEquals(List.of(4L, 1L, 3L, 2L), ranker.top("approved", 10));
+        assertEquals(List.of(4L, 1L), ranker.top("approved", 2));
+        assertTrue(ranker.top("approved", 0).isEmpty());
+        assertTrue(ranker.top("pending", 10).isEmpty());
+    }
+
+    @Test
+    void reactionsAndCommentsReorder() {
+        ranker.add(post(1, T0, 3), 0);
+        ranker.add(post(2, T0, 2), 0);
+        assertEquals(List.of(1L, 2L), ranker.top("approved", 10));
+
+        ranker.comment(2L);
+        assertEquals(List.of(2L, 1L), ranker.top("approved", 10));
+
+        ranker.like(1L);
+        ranker.like(1L);
+        assertEquals(List.of(1L, 2L), ranker.top("approved", 10));
+
+        ranker.dislike(1L);
+        ranker.dislike(1L);
+        assertEquals(List.of(2L, 1L), ranker.top("approved", 10));
+    }
+
+    @Test
+    void statusChangesAndRemovalsLeaveTheRanking() {
+        ranker.add(post(1, T0, 1), 0);
+        ranker.add(post(2, T0, 2), 0);
+        ranker.add(post(3, T0, 3), 0);
+
+        ranker.updateStatus(3L, "rejected");
+        ranker.remove(1L);
+        ranker.like(1L);
+
+        assertEquals(List.of(2L), ranker.top("approved", 10));
+        assertEquals(List.of(3L), ranker.top("rejected", 10));
+        assertEquals(3, ranker.maxPostId());
+    }
+
+    @Test
+    void addingAgainReplacesTheEntry() {
+        ranker.add(post(1, T0, 100), 0);
+        ranker.add(post(2, T0, 10), 0);
+        ranker.add(post(1, T0, 1), 0);
+
+        assertEquals(List.of(2L, 1L), ranker.top("approved", 10));
+    }
+
+    @Test
+    void concurrentChangesToOnePostLeaveOneNode() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 2000; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> tasks = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    int likes = t;
+                    tasks.add(pool.submit(() -> {
+                        start.await();
+                        if (likes % 4 == 3) ranker.updateStatus(1L, "rejected");
+                        else ranker.add(post(1, T0, likes), 0);
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> task : tasks) task.get();
+
+                List<Long> approved = ranker.top("approved", 10);
+                List<Long> rejected = ranker.top("rejected", 10);
+                assertEquals(1, approved.size() + rejected.size(), "round " + round + ": " + approved + " " + rejected);
+
+                ranker.remove(1L);
+                assertTrue(ranker.top("approved", 10).isEmpty() && ranker.top("rejected", 10).isEmpty(),
+                        "round " + round + ": node left after remove");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Post post(long id, Instant createdAt, int likes) {
+        Post p = new Post();
+        p.setId(id);
+        p.setStatus("approved");
+        p.setLikes(likes);
+        p.setDislikes(0);
+        p.setCreatedAt(createdAt);
+        return p;
+    }
+}
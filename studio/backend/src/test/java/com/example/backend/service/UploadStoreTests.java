@@ -0,0 +1,124 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Content addressing and deduplication in {@link UploadStore}. Every test stores random bytes,
+ * so its files land in fresh shard directories, which are removed afterwards.
+ */
+class UploadStoreTests {
+
+    private final UploadStore store = new UploadStore("http://media.example/");
+    private final List<Path> stored = new ArrayList<>();
+    private final Random random = new Random();
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        for (Path file : stored) {
+            Files.deleteIfExists(file);
+            deleteIfEmpty(file.getParent());
+            deleteIfEmpty(file.getParent().getParent());
+        }
+    }
+
+    @Test
+    void storesUnderHashWithShardDirectories() throws IOException {
+        byte[] bytes = randomBytes();
+
+        UploadStore.StoredUpload upload = store(bytes, "Photo.JPG");
+
+        String name = upload.file().getFileName().toString();
+        assertTrue(name.matches("[0-9a-f]{64}\\.jpg"), name);
+        assertEquals(name.substring(0, 2), upload.file().getParent().getParent().getFileName().toString());
+        assertEquals(name.substring(2, 4), upload.file().getParent().getFileName().toString());
+        assertEquals("http://media.example/uploads/" + name.substring(0, 2) + "/" + name.substring(2, 4) + "/" + name,
+                upload.url());
+        assertArrayEquals(bytes, Files.readAllBytes(upload.file()));
+        assertFalse(upload.duplicate());
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws IOException {
+        byte[] bytes = randomBytes();
+
+        UploadStore.StoredUpload first = store(bytes, "a.png");
+        UploadStore.StoredUpload second = store(bytes, "b.png");
+
+        assertFalse(first.duplicate());
+        assertTrue(second.duplicate());
+        assertEquals(first.file(), second.file());
+    }
+
+    @Test
+    void unsafeExtensionsAreDropped() throws IOException {
+        assertTrue(store(randomBytes(), "x.ph p").file().getFileName().toString().matches("[0-9a-f]{64}"));
+        assertTrue(store(randomBytes(), "noextension").file().getFileName().toString().matches("[0-9a-f]{64}"));
+    }
+
+    @Test
+    void concurrentIdenticalUploadsReportOneNewFile() throws Exception {
+        byte[] bytes = randomBytes();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<UploadStore.StoredUpload>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) tasks.add(() -> store.store(new MockMultipartFile("file", bytes), "same.bin"));
+            int created = 0;
+            for (Future<UploadStore.StoredUpload> f : pool.invokeAll(tasks)) {
+                UploadStore.StoredUpload upload = f.get();
+                stored.add(upload.file());
+                if (!upload.duplicate()) created++;
+            }
+            assertEquals(1, created);
+        } finally {
+            pool.shutdown();
+        }
+        assertNoTempFilesLeft();
+    }
+
+    private UploadStore.StoredUpload store(byte[] bytes, String name) throws IOException {
+        UploadStore.StoredUpload upload = store.store(new MockMultipartFile("file", bytes), name);
+        stored.add(upload.file());
+        return upload;
+    }
+
+    private byte[] randomBytes() {
+        byte[] bytes = new byte[1000 + random.nextInt(5000)];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static void assertNoTempFilesLeft() throws IOException {
+        Path tmp = Paths.get("uploads", ".tmp");
+        if (!Files.isDirectory(tmp)) return;
+        try (Stream<Path> files = Files.list(tmp)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static void deleteIfEmpty(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> entries = Files.list(dir)) {
+            if (entries.findAny().isEmpty()) Files.delete(dir);
+        }
+    }
+}
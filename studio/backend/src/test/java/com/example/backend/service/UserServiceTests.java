@@ -0,0 +1,111 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ChangePasswordRequest;
+import com.example.backend.dto.UpdateProfileRequest;
+import com.example.backend.model.Role;
+import com.example.backend.model.User;
+import com.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** The profile cache in front of the user table, against a mocked repository. */
+class UserServiceTests {
+
+    private final UserRepository users = mock(UserRepository.class);
+    private final PasswordHasher hasher = mock(PasswordHasher.class);
+    private final UserService service = new UserService(users, hasher, 100, 600);
+
+    @Test
+    void profileIsLoadedOnceWithTheRoleResolved() {
+        when(users.findById(1L)).thenReturn(Optional.of(user(1L, "Ada", "ADMIN")));
+
+        UserProfile first = service.getProfile(1L);
+        UserProfile second = service.getProfile(1L);
+
+        assertEquals(first, second);
+        assertTrue(first.admin());
+        assertEquals("admin", first.role());
+        verify(users, times(1)).findById(1L);
+        assertEquals(1, service.profileCacheStats().hitCount());
+    }
+
+    @Test
+    void unknownUserIsNotCached() {
+        when(users.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> service.getProfile(9L));
+        assertThrows(IllegalArgumentException.class, () -> service.getProfile(9L));
+        verify(users, times(2)).findById(9L);
+        assertEquals(0, service.profileCacheSize());
+    }
+
+    @Test
+    void updateProfileReplacesTheCachedEntry() {
+        User stored = user(1L, "Ada", "USER");
+        when(users.findById(1L)).thenReturn(Optional.of(stored));
+        when(users.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        assertEquals("Ada", service.getProfile(1L).fullName());
+
+        UpdateProfileRequest request = new UpdateProfileRequest();
+        request.setFullName("Ada Lovelace");
+        request.setPhotoUrl("/uploads/ada.jpg");
+        service.updateProfile(1L, request);
+
+        UserProfile cached = service.getProfile(1L);
+        assertEquals("Ada Lovelace", cached.fullName());
+        assertEquals("/uploads/ada.jpg", cached.photoUrl());
+        assertFalse(cached.admin());
+        // The initial load and updateProfile's own read; the last lookup was a hit
+        verify(users, times(2)).findById(1L);
+    }
+
+    @Test
+    void changePasswordEvictsTheProfile() {
+        when(users.findById(1L)).thenReturn(Optional.of(user(1L, "Ada", "USER")));
+        when(hasher.matches(eq("old-secret"), anyString())).thenReturn(true);
+        when(hasher.encode("new-secret")).thenReturn("new-hash");
+        when(users.updatePasswordHash(1L, "new-hash")).thenReturn(1);
+        service.getProfile(1L);
+
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.setCurrentPassword("old-secret");
+        request.setNewPassword("new-secret");
+        service.changePassword(1L, request);
+
+        assertEquals(0, service.profileCacheSize());
+    }
+
+    @Test
+    void cacheProfileServesLaterLookups() {
+        service.cacheProfile(user(2L, "Grace", "USER"));
+
+        assertEquals("Grace", service.getProfile(2L).fullName());
+        verify(users, times(0)).findById(2L);
+    }
+
+    private static User user(Long id, String name, String role) {
+        Role r = new Role();
+        r.setName(role);
+        User u = new User();
+        u.setId(id);
+        u.setEmail(name.toLowerCase() + "@example.com");
+        u.setFullName(name);
+        u.setPasswordHash("hash");
+        u.setRoles(Set.of(r));
+        return u;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.backend.web;
+
+import com.example.backend.service.MediaStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional and range requests against {@link MediaController}, on files written to a scratch
+ * directory under uploads/ that is removed afterwards.
+ */
+class MediaControllerTests {
+
+    private static final String HASH = "ab".repeat(32);
+    private static final String URL = "/uploads/zz-media-test/" + HASH + ".jpg";
+    private static final String ETAG = "\"" + HASH + "\"";
+
+    private final Path dir = Paths.get("uploads", "zz-media-test");
+    private final MediaStats stats = new MediaStats();
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(HASH + ".jpg"), "0123456789");
+        Files.writeString(dir.resolve("notes.txt"), "plain");
+        mvc = MockMvcBuilders.standaloneSetup(new MediaController(stats)).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Test
+    void hashedFileIsImmutableWithHashETag() throws Exception {
+        mvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0123456789"))
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+                .andExpect(header().doesNotExist(HttpHeaders.VARY));
+    }
+
+    @Test
+    void otherFilesGetShortCacheAndValidatorETag() throws Exception {
+        mvc.perform(get("/uploads/zz-media-test/notes.txt"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=86400"))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        mvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void ifModifiedSinceIsNotModified() throws Exception {
+        long modified = Files.getLastModifiedTime(dir.resolve(HASH + ".jpg")).toMillis();
+        mvc.perform(get(URL).header(HttpHeaders.IF_MODIFIED_SINCE, modified + 1000))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void byteRangesArePartial() throws Exception {
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-4/10"))
+                .andExpect(content().string("234"));
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("789"));
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=7-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("789"));
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws Exception {
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=99999999999999999999-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void oversizedRangeEndsAreClamped() throws Exception {
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=7-99999999999999999999"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("789"));
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-99999999999999999999"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/10"));
+    }
+
+    @Test
+    void staleIfRangeSendsWholeFile() throws Exception {
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-4").header(HttpHeaders.IF_RANGE, "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0123456789"));
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-4").header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(status().isPartialContent());
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws Exception {
+        mvc.perform(head(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void dotSegmentsAndMissingFilesAre404() throws Exception {
+        mvc.perform(get("/uploads/zz-media-test/.hidden")).andExpect(status().isNotFound());
+        mvc.perform(get("/uploads/zz-media-test/missing.jpg")).andExpect(status().isNotFound());
+    }
+}
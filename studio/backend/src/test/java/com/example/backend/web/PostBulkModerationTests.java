@@ -0,0 +1,183 @@
+package com.example.backend.web;
+
+import com.example.backend.model.Post;
+import com.example.backend.model.User;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.service.JwtService;
+import com.example.backend.service.PostService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * PUT /api/posts/status and DELETE /api/posts: posts selected by id or by filter are changed in
+ * one call, each id gets an outcome, and the feed and search reflect the change right away. Only
+ * admins may call them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:post-bulk;DB_CLOSE_DELAY=-1",
+        "snapshot.enabled=false"
+})
+@AutoConfigureMockMvc
+class PostBulkModerationTests {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private PostService posts;
+    @Autowired
+    private CommentRepository comments;
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private JwtService jwt;
+
+    // Six posts: even ones pending, topics alternate by pairs
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        posts.listAll().forEach(p -> posts.delete(p.getId()));
+        ids.clear();
+        for (int i = 0; i < 6; i++) {
+            Post p = new Post();
+            p.setTitle("walrus " + i);
+            p.setContent("content " + i);
+            p.setStatus(i % 2 == 0 ? "pending" : "approved");
+            p.setTopic(i / 2 % 2 == 0 ? "sea" : "land");
+            p.setAuthorEmail("mod@example.com");
+            Post created = posts.create(p);
+            posts.addCommentToPost(created, "c", "c@example.com", "comment on " + i);
+            ids.add(created.getId());
+        }
+    }
+
+    @Test
+    void updateByIdsReportsEveryOutcome() throws Exception {
+        JsonNode result = json(mvc.perform(json(put("/api/posts/status"),
+                        "{\"ids\":[" + ids.get(0) + "," + ids.get(1) + ",999999],\"status\":\"approved\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.changed").value(1))
+                .andExpect(jsonPath("$.unchanged").value(1))
+                .andExpect(jsonPath("$.notFound").value(1))
+                .andReturn());
+
+        assertEquals("updated", result.get("results").get(0).get("outcome").asText());
+        assertEquals("unchanged", result.get("results").get(1).get("outcome").asText());
+        assertEquals("not_found", result.get("results").get(2).get("outcome").asText());
+        assertEquals("approved", posts.get(ids.get(0)).orElseThrow().getStatus());
+        assertTrue(feed("/api/posts?status=approved").contains(ids.get(0)));
+        assertTrue(feed("/api/posts?status=approved&q=walrus").contains(ids.get(0)));
+        assertFalse(feed("/api/posts?status=pending").contains(ids.get(0)));
+    }
+
+    @Test
+    void updateByFilterOnlyTouchesMatchingPosts() throws Exception {
+        mvc.perform(json(put("/api/posts/status"),
+                        "{\"filter\":{\"status\":\"pending\",\"topic\":\"sea\"},\"status\":\"approved\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(2));
+
+        // Pending sea posts were 0 and 4; 2 is pending but on land
+        assertEquals(List.of(ids.get(2)), feed("/api/posts?status=pending"));
+        assertTrue(feed("/api/posts?status=approved&topic=sea").containsAll(List.of(ids.get(0), ids.get(4))));
+    }
+
+    @Test
+    void bulkDeleteRemovesPostsAndTheirComments() throws Exception {
+        long before = comments.count();
+
+        mvc.perform(json(delete("/api/posts"), "{\"ids\":[" + ids.get(1) + "," + ids.get(3) + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(2))
+                .andExpect(jsonPath("$.results[0].outcome").value("deleted"));
+
+        mvc.perform(get("/api/posts/" + ids.get(1))).andExpect(status().isNotFound());
+        assertEquals(before - 2, comments.count());
+        assertEquals(List.of(ids.get(5)), feed("/api/posts?status=approved"));
+        assertFalse(feed("/api/posts?status=approved&q=walrus").contains(ids.get(3)));
+    }
+
+    @Test
+    void malformedRequestsAreRejected() throws Exception {
+        mvc.perform(json(put("/api/posts/status"), "{\"ids\":[" + ids.get(0) + "],\"status\":\"deleted\"}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(json(put("/api/posts/status"),
+                        "{\"ids\":[" + ids.get(0) + "],\"filter\":{\"status\":\"pending\"},\"status\":\"approved\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Give either ids or filter"));
+        mvc.perform(json(delete("/api/posts"), "{}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(json(delete("/api/posts"), "{\"filter\":{\"topic\":\"sea\"}}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("filter.status is required"));
+
+        assertEquals(6, posts.listAll().size());
+    }
+
+    @Test
+    void onlyAdminsMayModerate() throws Exception {
+        String body = "{\"ids\":[" + ids.get(0) + "],\"status\":\"approved\"}";
+
+        mvc.perform(put("/api/posts/status").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(put("/api/posts/status").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("user")))
+                .andExpect(status().isForbidden());
+        mvc.perform(delete("/api/posts").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(delete("/api/posts").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("user")))
+                .andExpect(status().isForbidden());
+
+        assertEquals("pending", posts.get(ids.get(0)).orElseThrow().getStatus());
+        assertEquals(6, posts.listAll().size());
+    }
+
+    private List<Long> feed(String url) throws Exception {
+        List<Long> found = new ArrayList<>();
+        for (JsonNode post : json(mvc.perform(get(url)).andExpect(status().isOk()).andReturn())) {
+            found.add(post.get("id").asLong());
+        }
+        return found;
+    }
+
+    // Bulk moderation request from an admin
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, String body) {
+        return request.contentType(MediaType.APPLICATION_JSON).content(body)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("admin"));
+    }
+
+    private String token(String role) {
+        User moderator = new User();
+        moderator.setId(1L);
+        moderator.setEmail("mod@example.com");
+        return jwt.generateToken(moderator, role);
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return mapper.readTree(result.getResponse().getContentAsString());
+    }
+}
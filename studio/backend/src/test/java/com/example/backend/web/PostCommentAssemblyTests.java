@@ -0,0 +1,111 @@
+package com.example.backend.web;
+
+import com.example.backend.model.Post;
+import com.example.backend.service.PostService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Comments on assembled post DTOs: every post in a page carries its own total and its oldest
+ * {@link PostService#COMMENT_PREVIEW_SIZE} comments, and the comments endpoint pages the rest.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:post-comments;DB_CLOSE_DELAY=-1",
+        "snapshot.enabled=false"
+})
+@AutoConfigureMockMvc
+class PostCommentAssemblyTests {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private PostService posts;
+    @Autowired
+    private ObjectMapper mapper;
+
+    // Comment count by post id; post i gets i comments
+    private final Map<Long, Integer> commentsPerPost = new HashMap<>();
+
+    @BeforeEach
+    void seed() {
+        posts.listAll().forEach(p -> posts.delete(p.getId()));
+        commentsPerPost.clear();
+        for (int i = 0; i < 6; i++) {
+            Post p = new Post();
+            p.setTitle("post " + i);
+            p.setContent("content " + i);
+            p.setStatus("approved");
+            Post saved = posts.create(p);
+            for (int c = 0; c < i; c++) {
+                posts.addCommentToPost(saved, "reader", "reader@example.com", saved.getId() + ":" + c);
+            }
+            commentsPerPost.put(saved.getId(), i);
+        }
+    }
+
+    @Test
+    void feedCarriesCountsAndOldestCommentsPerPost() throws Exception {
+        JsonNode feed = json(mvc.perform(get("/api/posts?limit=10")).andExpect(status().isOk()).andReturn());
+
+        assertEquals(6, feed.size());
+        for (JsonNode post : feed) {
+            long id = post.get("id").asLong();
+            int total = commentsPerPost.get(id);
+            assertEquals(total, post.get("commentCount").asLong());
+            List<String> preview = new ArrayList<>();
+            for (JsonNode c : post.get("comments")) preview.add(c.get("content").asText());
+            List<String> expected = new ArrayList<>();
+            for (int c = 0; c < Math.min(total, PostService.COMMENT_PREVIEW_SIZE); c++) expected.add(id + ":" + c);
+            assertEquals(expected, preview, "preview of post " + id);
+        }
+    }
+
+    @Test
+    void detailMatchesTheFeed() throws Exception {
+        Long busiest = commentsPerPost.entrySet().stream().filter(e -> e.getValue() == 5).findFirst().orElseThrow().getKey();
+
+        JsonNode post = json(mvc.perform(get("/api/posts/" + busiest)).andExpect(status().isOk()).andReturn());
+
+        assertEquals(5, post.get("commentCount").asLong());
+        assertEquals(PostService.COMMENT_PREVIEW_SIZE, post.get("comments").size());
+        assertEquals(busiest + ":0", post.get("comments").get(0).get("content").asText());
+    }
+
+    @Test
+    void commentsEndpointPagesPastThePreview() throws Exception {
+        Long busiest = commentsPerPost.entrySet().stream().filter(e -> e.getValue() == 5).findFirst().orElseThrow().getKey();
+
+        MvcResult first = mvc.perform(get("/api/posts/" + busiest + "/comments?limit=3")).andExpect(status().isOk()).andReturn();
+        String cursor = first.getResponse().getHeader(PostController.NEXT_CURSOR_HEADER);
+        MvcResult second = mvc.perform(get("/api/posts/" + busiest + "/comments?limit=3&cursor=" + cursor))
+                .andExpect(status().isOk()).andReturn();
+
+        List<String> all = new ArrayList<>();
+        for (JsonNode c : json(first)) all.add(c.get("content").asText());
+        for (JsonNode c : json(second)) all.add(c.get("content").asText());
+        assertEquals(List.of(busiest + ":0", busiest + ":1", busiest + ":2", busiest + ":3", busiest + ":4"), all);
+        assertNull(second.getResponse().getHeader(PostController.NEXT_CURSOR_HEADER));
+        mvc.perform(get("/api/posts/999999/comments")).andExpect(status().isNotFound());
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return mapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.backend.web;
+
+import com.example.backend.model.Post;
+import com.example.backend.service.PostService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag and Last-Modified validators on the post detail and feed endpoints: an unchanged resource
+ * answers 304 with no body, and any write or reaction changes the validator.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:post-conditional;DB_CLOSE_DELAY=-1",
+        "snapshot.enabled=false"
+})
+@AutoConfigureMockMvc
+class PostConditionalRequestTests {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private PostService posts;
+
+    private Long id;
+
+    @BeforeEach
+    void seed() {
+        posts.listAll().forEach(p -> posts.delete(p.getId()));
+        Post p = new Post();
+        p.setTitle("validators");
+        p.setContent("content");
+        p.setStatus("approved");
+        id = posts.create(p).getId();
+    }
+
+    @Test
+    void unchangedPostIsNotModified() throws Exception {
+        MvcResult first = mvc.perform(get("/api/posts/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mvc.perform(get("/api/posts/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mvc.perform(get("/api/posts/" + id)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void reactionsAndCommentsChangeThePostETag() throws Exception {
+        String etag = etag("/api/posts/" + id);
+
+        // An unflushed like still has to invalidate what the client holds
+        mvc.perform(post("/api/posts/" + id + "/like")).andExpect(status().isOk());
+        mvc.perform(get("/api/posts/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        String liked = etag("/api/posts/" + id);
+        assertNotEquals(etag, liked);
+
+        mvc.perform(post("/api/posts/" + id + "/comments").contentType("application/json")
+                        .content("{\"content\":\"hello\"}"))
+                .andExpect(status().isCreated());
+        mvc.perform(get("/api/posts/" + id).header(HttpHeaders.IF_NONE_MATCH, liked))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void missingPostIs404() throws Exception {
+        mvc.perform(get("/api/posts/999999").header(HttpHeaders.IF_NONE_MATCH, "\"p999999-0-0-0\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void feedIsNotModifiedUntilAPostChanges() throws Exception {
+        String etag = etag("/api/posts?limit=5");
+
+        mvc.perform(get("/api/posts?limit=5").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        // Different parameters are a different representation
+        mvc.perform(get("/api/posts?limit=6").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        Post p = new Post();
+        p.setTitle("newer");
+        p.setContent("content");
+        p.setStatus("approved");
+        posts.create(p);
+        mvc.perform(get("/api/posts?limit=5").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void reactionsChangeTheTrendingETag() throws Exception {
+        String etag = etag("/api/posts/trending");
+
+        mvc.perform(post("/api/posts/" + id + "/dislike")).andExpect(status().isOk());
+
+        mvc.perform(get("/api/posts/trending").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String url) throws Exception {
+        String etag = mvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.backend.web;
+
+import com.example.backend.model.Post;
+import com.example.backend.service.PostService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/posts/export streams every matching post once, in id order, across several batches,
+ * as NDJSON lines or SSE events.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:post-export;DB_CLOSE_DELAY=-1",
+        "snapshot.enabled=false"
+})
+@AutoConfigureMockMvc
+class PostExportTests {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private PostService posts;
+    @Autowired
+    private ObjectMapper mapper;
+
+    private final List<Long> approved = new ArrayList<>();
+    private final List<Long> all = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        posts.listAll().forEach(p -> posts.delete(p.getId()));
+        approved.clear();
+        all.clear();
+        // More than two export batches
+        for (int i = 0; i < 250; i++) {
+            Post p = new Post();
+            p.setTitle("export " + i);
+            p.setContent("content " + i);
+            p.setStatus(i % 10 == 0 ? "pending" : "approved");
+            Post created = posts.create(p);
+            if (i == 3) posts.addCommentToPost(created, "c", "c@example.com", "first!");
+            all.add(created.getId());
+            if (!"pending".equals(p.getStatus())) approved.add(created.getId());
+        }
+    }
+
+    @Test
+    void ndjsonHasOnePostPerLine() throws Exception {
+        String body = export("/api/posts/export?status=approved", "application/x-ndjson");
+
+        List<Long> ids = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            JsonNode post = mapper.readTree(line);
+            assertEquals("approved", post.get("status").asText());
+            ids.add(post.get("id").asLong());
+        }
+        assertEquals(approved, ids);
+        assertTrue(body.endsWith("\n"));
+        assertTrue(body.contains("\"first!\""), "comments are assembled like the other endpoints");
+    }
+
+    @Test
+    void sseHasOneEventPerPost() throws Exception {
+        String body = export("/api/posts/export?format=sse", "text/event-stream");
+
+        List<Long> ids = new ArrayList<>();
+        for (String event : body.split("\n\n")) {
+            assertTrue(event.startsWith("data: "), event);
+            ids.add(mapper.readTree(event.substring("data: ".length())).get("id").asLong());
+        }
+        assertEquals(all, ids);
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        mvc.perform(get("/api/posts/export?format=csv")).andExpect(status().isBadRequest());
+    }
+
+    private String export(String url, String contentType) throws Exception {
+        MvcResult started = mvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(contentType))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.backend.web;
+
+import com.example.backend.model.Post;
+import com.example.backend.service.PostService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset pagination and filters of GET /api/posts: walking the feed page by page returns every
+ * post once, newest first, and search filters narrow the matches before the limit.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:post-feed;DB_CLOSE_DELAY=-1",
+        "snapshot.enabled=false"
+})
+@AutoConfigureMockMvc
+class PostFeedTests {
+
+    private static final Instant T0 = Instant.parse("2024-06-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private PostService posts;
+    @Autowired
+    private ObjectMapper mapper;
+
+    private final List<Long> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        posts.listAll().forEach(p -> posts.delete(p.getId()));
+        newestFirst.clear();
+        for (int i = 0; i < 25; i++) {
+            Post p = new Post();
+            p.setTitle(i % 5 == 0 ? "ramen review " + i : "post " + i);
+            p.setContent("content " + i);
+            p.setStatus(i == 7 ? "pending" : "approved");
+            p.setTopic(i % 2 == 0 ? "even" : "odd");
+            p.setAuthorEmail("author" + (i % 3) + "@example.com");
+            // Pairs share a timestamp, so the id tiebreak is exercised
+            p.setCreatedAt(T0.plusSeconds(i / 2));
+            Long id = posts.create(p).getId();
+            if (i != 7) newestFirst.add(0, id);
+        }
+    }
+
+    @Test
+    void walkingTheFeedReturnsEveryPostOnceNewestFirst() throws Exception {
+        List<Long> seen = walk("/api/posts?limit=10");
+
+        assertEquals(24, seen.size());
+        assertEquals(newestFirst, seen);
+    }
+
+    @Test
+    void filteredFeedPagesThroughTopicAndAuthor() throws Exception {
+        List<Long> even = walk("/api/posts?limit=4&topic=even");
+        List<Long> author = walk("/api/posts?limit=3&topic=odd&author=author1@example.com");
+
+        assertEquals(newestFirst.stream().filter(id -> topicOf(id).equals("even")).toList(), even);
+        assertEquals(newestFirst.stream()
+                .filter(id -> topicOf(id).equals("odd") && authorOf(id).equals("author1@example.com")).toList(), author);
+    }
+
+    @Test
+    void searchAppliesFiltersBeforeTheLimit() throws Exception {
+        // "ramen" matches posts 0, 5, 10, 15, 20; only 5 and 15 are odd
+        JsonNode body = json(mvc.perform(get("/api/posts?q=ramen&topic=odd&limit=2")).andExpect(status().isOk()).andReturn());
+
+        assertEquals(2, body.size());
+        for (JsonNode post : body) assertEquals("odd", post.get("topic").asText());
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        mvc.perform(get("/api/posts?cursor=%%%")).andExpect(status().isBadRequest());
+    }
+
+    private List<Long> walk(String url) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MvcResult result = mvc.perform(get(cursor == null ? url : url + "&cursor=" + cursor))
+                    .andExpect(status().isOk()).andReturn();
+            for (JsonNode post : json(result)) ids.add(post.get("id").asLong());
+            cursor = result.getResponse().getHeader(PostController.NEXT_CURSOR_HEADER);
+        } while (cursor != null && ids.size() < 100);
+        assertNull(cursor);
+        return ids;
+    }
+
+    private String topicOf(Long id) {
+        return posts.get(id).orElseThrow().getTopic();
+    }
+
+    private String authorOf(Long id) {
+        return posts.get(id).orElseThrow().getAuthorEmail();
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return mapper.readTree(result.getResponse().getContentAsString());
+    }
+}
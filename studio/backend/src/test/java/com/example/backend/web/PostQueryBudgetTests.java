@@ -0,0 +1,111 @@
+package com.example.backend.web;
+
+import com.example.backend.QueryBudget;
+import com.example.backend.model.Post;
+import com.example.backend.service.PostService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for the post endpoints. A change that adds a query per post (or per comment)
+ * to one of these requests fails here instead of showing up as a slow feed.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1",
+        "snapshot.enabled=false",
+        "query-count.headers=true"
+})
+@AutoConfigureMockMvc
+class PostQueryBudgetTests {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private PostService posts;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < 20; i++) {
+            Post p = new Post();
+            p.setTitle("post " + i);
+            p.setContent("content " + i);
+            p.setStatus("approved");
+            p.setAuthorEmail("author" + (i % 3) + "@example.com");
+            Post saved = posts.create(p);
+            ids.add(saved.getId());
+            for (int c = 0; c < 3; c++) {
+                posts.addCommentToPost(saved, "reader", "reader@example.com", "comment " + c);
+            }
+        }
+    }
+
+    @Test
+    void feedPageRunsFixedNumberOfQueries() throws Throwable {
+        // page, comment counts, comment previews: independent of page size and comments per post
+        QueryBudget.assertAtMost(3, () -> mvc.perform(get("/api/posts").param("limit", "20"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void postDetailIsServedFromCache() throws Throwable {
+        Long id = ids.get(0);
+        mvc.perform(get("/api/posts/{id}", id)).andExpect(status().isOk());
+        QueryBudget.assertAtMost(0, () -> mvc.perform(get("/api/posts/{id}", id)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void likeDoesNotWriteThePost() throws Throwable {
+        Long id = ids.get(1);
+        mvc.perform(get("/api/posts/{id}", id)).andExpect(status().isOk());
+        // Reactions are buffered and flushed in batches
+        QueryBudget.assertAtMost(0, () -> mvc.perform(post("/api/posts/{id}/like", id)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void commentPageRunsFixedNumberOfQueries() throws Throwable {
+        // existence check and one page
+        Long id = ids.get(2);
+        QueryBudget.assertAtMost(2, () -> mvc.perform(get("/api/posts/{id}/comments", id))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void statusUpdateLoadsThePostOnce() throws Throwable {
+        // select, update, then the DTO's comment count and previews
+        Long id = ids.get(3);
+        QueryBudget.assertAtMost(4, () -> mvc.perform(put("/api/posts/{id}/status", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"pending\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void searchHasNoPerPostQueries() throws Throwable {
+        QueryBudget.assertNoRepeats(1, () -> mvc.perform(get("/api/posts").param("q", "post"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void countsAreReturnedAsHeaders() throws Exception {
+        mvc.perform(get("/api/posts/{id}/comments", ids.get(4)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Query-Count"))
+                .andExpect(header().exists("X-Query-Time-Ms"));
+    }
+}
@@ -4,7 +4,7 @@
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from "@/components/ui/card";
 import { Table, TableBody, TableCell, TableHead, TableHeader, TableRow } from "@/components/ui/table";
 import { Avatar, AvatarFallback, AvatarImage } from "@/components/ui/avatar";
-import { getPosts } from "@/lib/posts";
+import { getAllComments, getPosts } from "@/lib/posts";
 import { useEffect, useState, useTransition } from "react";
 import { Loader2, MoreHorizontal, Trash2 } from "lucide-react";
 import { DropdownMenu, DropdownMenuContent, DropdownMenuItem, DropdownMenuLabel, DropdownMenuTrigger } from "@/components/ui/dropdown-menu";
@@ -52,8 +52,13 @@ export function AdminCommentsTab() {
                 const posts = [...approved, ...pending];
                 const allComments: CommentRowData[] = [];
                 
-                posts.forEach(post => {
-                    post.comments.forEach(comment => {
+                // Posts only embed a preview; page through the rest where there are more
+                const commentLists = await Promise.all(posts.map(post =>
+                    (post.commentCount ?? 0) > post.comments.length ? getAllComments(post.id) : Promise.resolve(post.comments)
+                ));
+
+                posts.forEach((post, i) => {
+                    commentLists[i].forEach(comment => {
                         allComments.push({
                             ...comment,
                             postTitle: post.title,
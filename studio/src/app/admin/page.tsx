@@ -50,7 +50,7 @@ export default function AdminDashboardPage() {
                 ]);
                 
                 // Calculate total comments across all posts
-                const totalComments = [...approved, ...pending].reduce((sum, post) => sum + (post.comments?.length || 0), 0);
+                const totalComments = [...approved, ...pending].reduce((sum, post) => sum + (post.commentCount ?? post.comments?.length ?? 0), 0);
                 
                 setStats({
                     totalPosts: approved.length,
@@ -11,6 +11,7 @@ import { Avatar, AvatarFallback, AvatarImage } from '@/components/ui/avatar';
 import { Loader2, User as UserIcon, Lock, Upload } from 'lucide-react';
 import { useAuth } from '@/lib/auth-context';
 import { useToast } from '@/hooks/use-toast';
+import { apiFetch } from '@/lib/api';
 
 const API_BASE = process.env.NEXT_PUBLIC_API_BASE_URL || 'http://localhost:8081/api';
 
@@ -69,7 +70,7 @@ export default function EditProfilePage() {
     formData.append('file', imageFile);
 
     try {
-      const response = await fetch(`${API_BASE}/uploads`, {
+      const response = await apiFetch(`${API_BASE}/uploads`, {
         method: 'POST',
         body: formData,
       });
@@ -109,7 +110,7 @@ export default function EditProfilePage() {
       }
 
       const token = localStorage.getItem('auth_token');
-      const response = await fetch(`${API_BASE}/user/${user.id}/profile`, {
+      const response = await apiFetch(`${API_BASE}/user/${user.id}/profile`, {
         method: 'PUT',
         headers: {
           'Content-Type': 'application/json',
@@ -175,7 +176,7 @@ export default function EditProfilePage() {
 
     try {
       const token = localStorage.getItem('auth_token');
-      const response = await fetch(`${API_BASE}/user/${user.id}/password`, {
+      const response = await apiFetch(`${API_BASE}/user/${user.id}/password`, {
         method: 'PUT',
         headers: {
           'Content-Type': 'application/json',
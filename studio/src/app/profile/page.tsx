@@ -37,17 +37,15 @@ export default function ProfilePage() {
   const fetchUserPosts = async () => {
     try {
       setIsLoading(true);
+      // The backend filters by author, so only this user's posts are transferred
+      const author = user?.email ?? undefined;
       const [approved, pending] = await Promise.all([
-        getPosts('approved'),
-        getPosts('pending')
+        getPosts('approved', undefined, author),
+        getPosts('pending', undefined, author)
       ]);
 
-      // Filter posts by current user's email
-      const userApproved = approved.filter(post => post.author.email === user?.email);
-      const userPending = pending.filter(post => post.author.email === user?.email);
-
-      setApprovedPosts(userApproved);
-      setPendingPosts(userPending);
+      setApprovedPosts(approved);
+      setPendingPosts(pending);
     } catch (error) {
       console.error('Failed to fetch user posts:', error);
     } finally {
@@ -154,7 +152,7 @@ export default function ProfilePage() {
                     <div className="flex gap-4 mt-4 text-sm text-muted-foreground">
                       <span>👍 {post.likes}</span>
                       <span>👎 {post.dislikes}</span>
-                      <span>💬 {post.comments.length}</span>
+                      <span>💬 {post.commentCount ?? post.comments.length}</span>
                     </div>
                   </CardContent>
                 </Card>
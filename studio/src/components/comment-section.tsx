@@ -2,7 +2,7 @@
 
 import { useState, useTransition } from 'react';
 import { type Comment } from '@/lib/types';
-import { addComment } from '@/lib/posts';
+import { addComment, getComments } from '@/lib/posts';
 import { Avatar, AvatarFallback, AvatarImage } from './ui/avatar';
 import { Button } from './ui/button';
 import { Textarea } from './ui/textarea';
@@ -23,8 +23,13 @@ import {
   AlertDialogTrigger,
 } from './ui/alert-dialog';
 
-export function CommentSection({ postId, initialComments }: { postId: string; initialComments: Comment[] }) {
+export function CommentSection({ postId, initialComments, totalComments }: { postId: string; initialComments: Comment[]; totalComments?: number }) {
   const [comments, setComments] = useState<Comment[]>(initialComments);
+  const [commentCount, setCommentCount] = useState(totalComments ?? initialComments.length);
+  // The post only carries a preview; null cursor + fullyLoaded=false means "start from the top"
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [fullyLoaded, setFullyLoaded] = useState(initialComments.length >= (totalComments ?? initialComments.length));
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
   const [newComment, setNewComment] = useState('');
   const [isPending, startTransition] = useTransition();
   const { toast } = useToast();
@@ -48,6 +53,7 @@ export function CommentSection({ postId, initialComments }: { postId: string; in
       try {
         const addedComment = await addComment(postId, newComment.trim(), user);
         setComments((prev) => [...prev, addedComment]);
+        setCommentCount((prev) => prev + 1);
         setNewComment('');
         toast({
           title: 'Comment Added!',
@@ -69,6 +75,7 @@ export function CommentSection({ postId, initialComments }: { postId: string; in
         // In a real app, this would make an API call to delete the comment
         // await deleteComment(postId, commentId);
         setComments((prev) => prev.filter((c) => c.id !== commentId));
+        setCommentCount((prev) => Math.max(0, prev - 1));
         toast({
           title: 'Comment Deleted',
           description: 'Your comment has been removed.',
@@ -84,9 +91,28 @@ export function CommentSection({ postId, initialComments }: { postId: string; in
     });
   };
 
+  const handleLoadMore = async () => {
+    setIsLoadingMore(true);
+    try {
+      const page = await getComments(postId, nextCursor);
+      // The first fetch replaces the preview, later ones append
+      setComments((prev) => (nextCursor ? [...prev, ...page.comments] : page.comments));
+      setNextCursor(page.nextCursor);
+      setFullyLoaded(page.nextCursor === null);
+    } catch (error) {
+      toast({
+        title: 'Error',
+        description: 'Failed to load comments. Please try again.',
+        variant: 'destructive',
+      });
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
+
   return (
     <div className="p-4 space-y-4 bg-muted/50">
-      <h3 className="font-headline text-lg font-semibold">Comments ({comments.length})</h3>
+      <h3 className="font-headline text-lg font-semibold">Comments ({commentCount})</h3>
       
       {/* Add Comment Form */}
       {isAuthenticated ? (
@@ -177,6 +203,14 @@ export function CommentSection({ postId, initialComments }: { postId: string; in
             </div>
           </div>
         ))}
+        {!fullyLoaded && (
+          <div className="flex justify-center">
+            <Button variant="ghost" size="sm" onClick={handleLoadMore} disabled={isLoadingMore}>
+              {isLoadingMore && <Loader2 className="animate-spin" />}
+              {nextCursor ? 'Load more comments' : `View all ${commentCount} comments`}
+            </Button>
+          </div>
+        )}
          {comments.length === 0 && (
             <p className="text-center text-sm text-muted-foreground py-4">No comments yet. Be the first to share your thoughts!</p>
         )}
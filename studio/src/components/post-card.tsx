@@ -174,7 +174,7 @@ export function PostCard({ post }: { post: Post }) {
             <CollapsibleTrigger asChild>
                 <Button variant="ghost" size="sm">
                     <MessageCircle className="h-5 w-5" />
-                    <span className="ml-2 text-sm font-medium">{post.comments.length}</span>
+                    <span className="ml-2 text-sm font-medium">{post.commentCount ?? post.comments.length}</span>
                 </Button>
             </CollapsibleTrigger>
             <Button variant="ghost" size="sm" onClick={handleShare}>
@@ -188,7 +188,7 @@ export function PostCard({ post }: { post: Post }) {
       </CardFooter>
       <CollapsibleContent>
         <Separator />
-        <CommentSection postId={post.id} initialComments={post.comments} />
+        <CommentSection postId={post.id} initialComments={post.comments} totalComments={post.commentCount} />
       </CollapsibleContent>
     </Card>
     </Collapsible>
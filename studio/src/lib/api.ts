@@ -0,0 +1,30 @@
+// fetch for the backend API. After a write the backend answers with X-Primary-Until; sending it
+// back until then makes our reads go to the primary database, so we see our own changes even
+// when reads are served by a lagging replica. A header, not a cookie: the API is cross-origin.
+const PRIMARY_UNTIL = 'X-Primary-Until';
+const STORAGE_KEY = 'api.primaryUntil';
+
+let primaryUntil = 0;
+
+const readStored = (): number => {
+  if (typeof window === 'undefined') return primaryUntil;
+  const stored = Number(window.sessionStorage.getItem(STORAGE_KEY));
+  return Number.isFinite(stored) ? Math.max(primaryUntil, stored) : primaryUntil;
+};
+
+export const apiFetch = async (input: string, init: RequestInit = {}): Promise<Response> => {
+  const until = readStored();
+  let requestInit = init;
+  if (until > Date.now()) {
+    const headers = new Headers(init.headers);
+    headers.set(PRIMARY_UNTIL, String(until));
+    requestInit = { ...init, headers };
+  }
+  const res = await fetch(input, requestInit);
+  const next = Number(res.headers.get(PRIMARY_UNTIL));
+  if (next > primaryUntil) {
+    primaryUntil = next;
+    if (typeof window !== 'undefined') window.sessionStorage.setItem(STORAGE_KEY, String(next));
+  }
+  return res;
+};
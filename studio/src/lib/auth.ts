@@ -1,6 +1,7 @@
 'use client';
 
 import { User } from './types';
+import { apiFetch } from './api';
 
 const API_BASE = process.env.NEXT_PUBLIC_API_BASE ?? '/api';
 
@@ -22,7 +23,7 @@ export interface AuthResponse {
 
 // Auth API calls
 export const login = async (credentials: LoginCredentials): Promise<AuthResponse> => {
-  const res = await fetch(`${API_BASE}/auth/login`, {
+  const res = await apiFetch(`${API_BASE}/auth/login`, {
     method: 'POST',
     headers: { 'Content-Type': 'application/json' },
     body: JSON.stringify(credentials),
@@ -43,7 +44,7 @@ export const login = async (credentials: LoginCredentials): Promise<AuthResponse
 };
 
 export const register = async (data: RegisterData): Promise<AuthResponse> => {
-  const res = await fetch(`${API_BASE}/auth/register`, {
+  const res = await apiFetch(`${API_BASE}/auth/register`, {
     method: 'POST',
     headers: { 'Content-Type': 'application/json' },
     body: JSON.stringify(data),
@@ -1,13 +1,15 @@
-import { type Post, type Comment, User } from './types';
+import { type Post, type Comment, type CommentPage, User } from './types';
+import { apiFetch } from './api';
 
 // Use relative path so Next.js can proxy API calls during dev; fallback to env if provided
 const API_BASE = process.env.NEXT_PUBLIC_API_BASE ?? '/api';
 
-export const getPosts = async (status: 'approved' | 'pending' = 'approved', userId?: string): Promise<Post[]> => {
+export const getPosts = async (status: 'approved' | 'pending' = 'approved', userId?: string, author?: string): Promise<Post[]> => {
   const params = new URLSearchParams();
   if (status) params.set('status', status);
   if (userId) params.set('userId', userId);
-  const res = await fetch(`${API_BASE}/posts?${params.toString()}`);
+  if (author) params.set('author', author);
+  const res = await apiFetch(`${API_BASE}/posts?${params.toString()}`);
   if (!res.ok) throw new Error('Failed to fetch posts');
   return (await res.json()) as Post[];
 };
@@ -17,7 +19,7 @@ export const getPostsSync = (): Post[] => {
   return [];
 };
 
-export const addPost = async (post: Omit<Post, 'id' | 'createdAt' | 'author' | 'likes' | 'dislikes' | 'comments' | 'status'>, user: User): Promise<Post> => {
+export const addPost = async (post: Omit<Post, 'id' | 'createdAt' | 'author' | 'likes' | 'dislikes' | 'commentCount' | 'comments' | 'status'>, user: User): Promise<Post> => {
   // Backend expects an `author` object (name, avatarUrl, email) in the DTO.
   // If caller provided a File in the `imageFile` property, upload it first and replace `imageUrl`.
   let imageUrl = (post as any).imageUrl;
@@ -25,7 +27,7 @@ export const addPost = async (post: Omit<Post, 'id' | 'createdAt' | 'author' | '
   if (imageFile) {
     const form = new FormData();
     form.append('file', imageFile);
-    const up = await fetch(`${API_BASE}/uploads`, { method: 'POST', body: form });
+    const up = await apiFetch(`${API_BASE}/uploads`, { method: 'POST', body: form });
     if (!up.ok) {
       const text = await up.text().catch(() => '');
       throw new Error(`Failed to upload image: ${up.status} ${text}`);
@@ -45,7 +47,7 @@ export const addPost = async (post: Omit<Post, 'id' | 'createdAt' | 'author' | '
   }
 
   const body = { ...post, imageUrl, author: { name: user.displayName || user.email, email: user.email, avatarUrl: (user as any).photoURL || null } };
-  const res = await fetch(`${API_BASE}/posts`, { method: 'POST', headers: { 'Content-Type': 'application/json' }, body: JSON.stringify(body) });
+  const res = await apiFetch(`${API_BASE}/posts`, { method: 'POST', headers: { 'Content-Type': 'application/json' }, body: JSON.stringify(body) });
   if (!res.ok) {
     const text = await res.text().catch(() => '');
     throw new Error(`Failed to create post: ${res.status} ${text}`);
@@ -54,7 +56,7 @@ export const addPost = async (post: Omit<Post, 'id' | 'createdAt' | 'author' | '
 };
 
 export const addComment = async (postId: string, commentContent: string, user: User): Promise<Comment> => {
-  const res = await fetch(`${API_BASE}/posts/${postId}/comments`, {
+  const res = await apiFetch(`${API_BASE}/posts/${postId}/comments`, {
     method: 'POST',
     headers: { 'Content-Type': 'application/json' },
     body: JSON.stringify({ content: commentContent, authorName: user.displayName, authorEmail: user.email })
@@ -63,8 +65,28 @@ export const addComment = async (postId: string, commentContent: string, user: U
   return (await res.json()) as Comment;
 };
 
+// Comments are paged oldest first; pass the previous page's nextCursor to continue
+export const getComments = async (postId: string, cursor?: string | null, limit = 20): Promise<CommentPage> => {
+  const params = new URLSearchParams({ limit: String(limit) });
+  if (cursor) params.set('cursor', cursor);
+  const res = await apiFetch(`${API_BASE}/posts/${postId}/comments?${params.toString()}`);
+  if (!res.ok) throw new Error('Failed to fetch comments');
+  return { comments: (await res.json()) as Comment[], nextCursor: res.headers.get('X-Next-Cursor') };
+};
+
+export const getAllComments = async (postId: string): Promise<Comment[]> => {
+  const all: Comment[] = [];
+  let cursor: string | null = null;
+  do {
+    const page = await getComments(postId, cursor, 100);
+    all.push(...page.comments);
+    cursor = page.nextCursor;
+  } while (cursor);
+  return all;
+};
+
 export const updatePostStatus = async (postId: string, status: 'approved' | 'pending'): Promise<Post> => {
-  const res = await fetch(`${API_BASE}/posts/${postId}/status`, {
+  const res = await apiFetch(`${API_BASE}/posts/${postId}/status`, {
     method: 'PUT', headers: { 'Content-Type': 'application/json' }, body: JSON.stringify({ status })
   });
   if (!res.ok) {
@@ -75,18 +97,18 @@ export const updatePostStatus = async (postId: string, status: 'approved' | 'pen
 };
 
 export const deletePost = async (postId: string): Promise<boolean> => {
-  const res = await fetch(`${API_BASE}/posts/${postId}`, { method: 'DELETE' });
+  const res = await apiFetch(`${API_BASE}/posts/${postId}`, { method: 'DELETE' });
   return res.ok;
 };
 
 export const likePost = async (postId: string): Promise<Post> => {
-  const res = await fetch(`${API_BASE}/posts/${postId}/like`, { method: 'POST' });
+  const res = await apiFetch(`${API_BASE}/posts/${postId}/like`, { method: 'POST' });
   if (!res.ok) throw new Error('Failed to like post');
   return await res.json();
 };
 
 export const dislikePost = async (postId: string): Promise<Post> => {
-  const res = await fetch(`${API_BASE}/posts/${postId}/dislike`, { method: 'POST' });
+  const res = await apiFetch(`${API_BASE}/posts/${postId}/dislike`, { method: 'POST' });
   if (!res.ok) throw new Error('Failed to dislike post');
   return await res.json();
 };
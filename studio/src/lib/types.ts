@@ -24,9 +24,16 @@ export type Post = {
   status: 'approved' | 'pending';
   likes: number;
   dislikes: number;
+  // Total comments on the post; `comments` only holds the first few (see getComments)
+  commentCount: number;
   comments: Comment[];
 };
 
+export type CommentPage = {
+  comments: Comment[];
+  nextCursor: string | null;
+};
+
 export type User = {
   id?: number;
   email: string | null;